@@ -0,0 +1,161 @@
+package oscar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import oscar.essential.ItemCodecBenchmark;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Measures the time to first interaction, from launching a new JVM until Oscar can take a command. Every launch
+ * reads the same save file of oscar.benchmark.items items, written once before the first launch.
+ * The window is launched with -Doscar.startup=exit and reports when it was shown and when Oscar was ready. The
+ * console is timed from launch until the response to its first command arrives. Each is launched
+ * oscar.benchmark.runs times without and then with the class-data sharing archive, and the medians are printed.
+ * This is a plain program rather than a JMH benchmark, since every sample is a new process.
+ */
+public class StartupBenchmark {
+    private static final int SIZE = Integer.getInteger("oscar.benchmark.items", 100_000);
+    private static final int RUNS = Integer.getInteger("oscar.benchmark.runs", 5);
+    private static final Pattern STARTUP_REPORT =
+            Pattern.compile("Oscar started: window shown after (-?\\d+) ms, infos loaded after (-?\\d+) ms");
+
+    /**
+     * Writes the save file and launches Oscar over it.
+     *
+     * @param args Java executable, shadow jar, class-data sharing archive, working directory, and then the modes
+     *     to measure, "console" and "window", which default to both.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, OscarException {
+        String java = args[0];
+        Path jar = Paths.get(args[1]).toAbsolutePath();
+        Path archive = Paths.get(args[2]).toAbsolutePath();
+        Path directory = Paths.get(args[3]).toAbsolutePath();
+        List<String> modes = args.length > 4
+                ? Arrays.asList(args).subList(4, args.length)
+                : List.of("console", "window");
+        writeSaveFile(directory.resolve("data"));
+        for (boolean isShared : new boolean[]{false, true}) {
+            if (isShared && !Files.exists(archive)) {
+                System.out.println("No class-data sharing archive at " + archive);
+                break;
+            }
+            List<String> jvm = new ArrayList<>(List.of(java));
+            if (isShared) {
+                jvm.add("-XX:SharedArchiveFile=" + archive);
+            }
+            String label = isShared ? "with archive" : "without archive";
+            for (String mode : modes) {
+                if (mode.equals("console")) {
+                    long[] ready = new long[RUNS];
+                    for (int i = 0; i < RUNS; i++) {
+                        ready[i] = launchConsole(jvm, jar, directory);
+                    }
+                    System.out.printf("console %s: first response after %d ms%n", label, median(ready));
+                } else {
+                    long[] shown = new long[RUNS];
+                    long[] ready = new long[RUNS];
+                    for (int i = 0; i < RUNS; i++) {
+                        long[] times = launchWindow(jvm, jar, directory);
+                        shown[i] = times[0];
+                        ready[i] = times[1];
+                    }
+                    System.out.printf("window %s: shown after %d ms, infos loaded after %d ms%n", label,
+                            median(shown), median(ready));
+                }
+            }
+        }
+    }
+
+    private static void writeSaveFile(Path data) throws IOException, OscarException {
+        Files.createDirectories(data);
+        try (Stream<Path> files = Files.list(data)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        new Storage(data.resolve("infolist").toString()).save(ItemCodecBenchmark.createItems(SIZE));
+    }
+
+    /**
+     * Launches the console, sends it a command, and waits for the response.
+     *
+     * @return Milliseconds from launch until the response arrived.
+     */
+    private static long launchConsole(List<String> jvm, Path jar, Path directory)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(jvm);
+        command.addAll(List.of("-jar", jar.toString(), "--console"));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try (OutputStream in = process.getOutputStream()) {
+            in.write("list --size 1\nbye\n".getBytes(StandardCharsets.UTF_8));
+        }
+        long ready = -1;
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (ready < 0 && line.startsWith("Here are the items")) {
+                    ready = (System.nanoTime() - start) / 1_000_000;
+                }
+            }
+        }
+        checkExit(process);
+        return ready;
+    }
+
+    /**
+     * Launches the window, which closes itself once Oscar is ready.
+     *
+     * @return Milliseconds from launch until the window was shown and until Oscar was ready, as reported.
+     */
+    private static long[] launchWindow(List<String> jvm, Path jar, Path directory)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(jvm);
+        command.addAll(List.of("-Doscar.startup=exit", "-jar", jar.toString()));
+        Process process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        long[] times = {-1, -1};
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                Matcher matcher = STARTUP_REPORT.matcher(line);
+                if (matcher.matches()) {
+                    times[0] = Long.parseLong(matcher.group(1));
+                    times[1] = Long.parseLong(matcher.group(2));
+                }
+            }
+        }
+        checkExit(process);
+        return times;
+    }
+
+    private static void checkExit(Process process) throws InterruptedException {
+        int status = process.waitFor();
+        if (status != 0) {
+            throw new IllegalStateException("Oscar exited with status " + status);
+        }
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
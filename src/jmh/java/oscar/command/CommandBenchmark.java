@@ -0,0 +1,161 @@
+package oscar.command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.essential.ItemCodecBenchmark;
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+import oscar.item.TodoTask;
+
+/**
+ * Measures every command from execute to its journal record, on an info list loaded from a save file.
+ * Commands that change the list are undone directly on the list and storage after each run, so the size of
+ * the list stays the same and the undo is counted in the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class CommandBenchmark {
+    private static final int SIZE = 10_000;
+
+    private Path directory;
+    private ItemList infos;
+    private Storage storage;
+
+    /**
+     * Saves an info list with a mix of every item type, loads it back and builds its indexes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, OscarException {
+        directory = Files.createTempDirectory("oscar-command");
+        storage = new Storage(directory.resolve("infolist").toString());
+        storage.save(ItemCodecBenchmark.createItems(SIZE));
+        infos = storage.load();
+        infos.find("chapter 1");
+        infos.findDueBefore(LocalDateTime.MIN);
+    }
+
+    /**
+     * Writes out the journal and removes the save files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, OscarException {
+        storage.flush();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private String removeLast(String response) {
+        int index = infos.getSize() - 1;
+        infos.delete(index);
+        storage.recordDelete(infos, index);
+        return response;
+    }
+
+    @Benchmark
+    public String todo() throws OscarException {
+        return removeLast(new TodoCommand("read chapter 3").execute(infos, storage));
+    }
+
+    @Benchmark
+    public String deadline() throws OscarException {
+        return removeLast(new DeadlineCommand("submit assignment /by 2023-09-11 2359").execute(infos, storage));
+    }
+
+    @Benchmark
+    public String event() throws OscarException {
+        return removeLast(new EventCommand("project meeting /from 2023-09-11 1400 /to 2023-09-11 1600")
+                .execute(infos, storage));
+    }
+
+    @Benchmark
+    public String note() throws OscarException {
+        return removeLast(new NoteCommand("buy milk").execute(infos, storage));
+    }
+
+    @Benchmark
+    public String delete() throws OscarException {
+        TodoTask task = new TodoTask("read chapter 3");
+        infos.add(task);
+        storage.recordAdd(infos, task);
+        return new DeleteCommand(String.valueOf(infos.getSize())).execute(infos, storage);
+    }
+
+    @Benchmark
+    public String mark() throws OscarException {
+        String response = new MarkCommand("1").execute(infos, storage);
+        infos.unmark(0);
+        storage.recordUnmark(infos, 0);
+        return response;
+    }
+
+    @Benchmark
+    public String unmark() throws OscarException {
+        infos.mark(0);
+        storage.recordMark(infos, 0);
+        return new UnmarkCommand("1").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String list() throws OscarException {
+        return new ListCommand("--page 25").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String find() throws OscarException {
+        return new FindCommand("chapter 4217").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String upcoming() throws OscarException {
+        return new UpcomingCommand("7d").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String due() throws OscarException {
+        return new DueCommand("before 2023-09-08 0000").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String overlapping() throws OscarException {
+        return new OverlappingCommand("/from 2023-09-11 0000 /to 2023-09-12 0000").execute(infos, storage);
+    }
+
+    @Benchmark
+    public String batch() throws OscarException {
+        return new BatchCommand(List.of("todo read chapter 3", "mark " + (SIZE + 1), "delete " + (SIZE + 1)))
+                .execute(infos, storage);
+    }
+
+    @Benchmark
+    public String exit() throws OscarException {
+        return new ExitCommand().execute(infos, storage);
+    }
+}
@@ -0,0 +1,72 @@
+package oscar.command;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.essential.ItemCodecBenchmark;
+import oscar.essential.ItemList;
+
+/**
+ * Measures how find scales with the number of threads on a large list, for queries that have to check every
+ * item. Each query runs in a fork/join pool of the given parallelism, where a parallelism of 1 checks the items
+ * in order on one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ParallelFindBenchmark {
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"--ignore-case CHAPTER 4217", "--regex ^read chapter 42\\d\\d$",
+        "--operators --fuzzy chaptr 4217 OR meetng 99999"})
+    private String query;
+
+    private ItemList infos;
+    private ForkJoinPool pool;
+    private FindCommand command;
+
+    /**
+     * Fills an info list and starts a pool of the given parallelism.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        infos = ItemCodecBenchmark.createItems(size);
+        pool = new ForkJoinPool(parallelism);
+        command = new FindCommand(query);
+    }
+
+    /**
+     * Stops the pool.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String find() throws InterruptedException, ExecutionException {
+        return pool.submit(() -> command.execute(infos, null)).get();
+    }
+}
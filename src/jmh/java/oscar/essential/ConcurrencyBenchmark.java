@@ -0,0 +1,104 @@
+package oscar.essential;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.exception.OscarException;
+import oscar.item.TodoTask;
+
+/**
+ * Measures query throughput on a shared info list as reader threads are added, with and without a thread
+ * changing the list at the same time. In the rebuild group the writer revives an item after every change, which
+ * drops the keyword index, so the readers keep racing to build it again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ConcurrencyBenchmark {
+    private static final int SIZE = 100_000;
+
+    private ItemList infos;
+
+    /**
+     * Fills an info list with a mix of every item type and builds its keyword index.
+     */
+    @Setup
+    public void setUp() {
+        infos = ItemCodecBenchmark.createItems(SIZE);
+        infos.find("chapter 1");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String findOneReader() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Threads(2)
+    public String findTwoReaders() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String findFourReaders() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String findAllReaders() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public String mixedFind() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public String mixedWrite() throws OscarException {
+        return infos.runExclusively(() -> {
+            infos.add(new TodoTask("read chapter"));
+            return infos.delete(infos.getSize() - 1);
+        });
+    }
+
+    @Benchmark
+    @Group("rebuild")
+    @GroupThreads(3)
+    public String rebuildFind() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    @Group("rebuild")
+    @GroupThreads(1)
+    public String rebuildWrite() throws OscarException {
+        return infos.runExclusively(() -> {
+            infos.delete(infos.getSize() - 1);
+            return infos.undo();
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package oscar.essential;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the trigram index used by find against checking every description.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class FindBenchmark {
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"chapter 4217", "meeting 99999", "buy item"})
+    private String keyword;
+
+    private ItemList infos;
+
+    /**
+     * Fills an info list and builds its trigram index.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        infos = ItemCodecBenchmark.createItems(size);
+        infos.find(keyword);
+    }
+
+    @Benchmark
+    public String findIndexed() {
+        return infos.find(keyword);
+    }
+
+    @Benchmark
+    public String findByScan() {
+        return infos.findByScan(keyword);
+    }
+}
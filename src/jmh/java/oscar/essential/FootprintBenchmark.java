@@ -0,0 +1,103 @@
+package oscar.essential;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.exception.OscarException;
+
+/**
+ * Measures the heap taken by each item of an info list, and the cost of creating items from their columns.
+ * Bytes per item are printed once per trial for a list built in memory and for the same list loaded from its
+ * save files, before and after half of it is marked as done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g", "-XX:+UseSerialGC"})
+public class FootprintBenchmark {
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private ItemList infos;
+    private BitSet everyItem;
+    private boolean isDone;
+
+    /**
+     * Builds an info list with a mix of every item type, saves and loads it, and prints its footprint.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, OscarException {
+        directory = Files.createTempDirectory("oscar-footprint");
+        long empty = usedHeap();
+        ItemList built = ItemCodecBenchmark.createItems(size);
+        long inMemory = usedHeap() - empty;
+        Storage storage = new Storage(directory.resolve("infolist").toString());
+        storage.save(built);
+        built = null;
+        empty = usedHeap();
+        infos = storage.load();
+        long loaded = usedHeap() - empty;
+        everyItem = new BitSet(size);
+        for (int i = 0; i < size; i += 2) {
+            everyItem.set(i);
+        }
+        infos.markAll(everyItem, true);
+        long halfMarked = usedHeap() - empty;
+        everyItem.set(0, size);
+        System.out.printf("%n%d items: in memory %.1f, loaded %.1f, loaded and half marked %.1f bytes per item%n",
+                size, (double) inMemory / size, (double) loaded / size, (double) halfMarked / size);
+    }
+
+    /**
+     * Removes the save files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ItemCodecBenchmark.deleteDirectory(directory);
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    public long readEveryItem() {
+        long length = 0;
+        for (int i = 0; i < size; i++) {
+            length += infos.get(i).getDescription().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public BitSet markEveryTask() {
+        isDone = !isDone;
+        return infos.markAll(everyItem, isDone);
+    }
+}
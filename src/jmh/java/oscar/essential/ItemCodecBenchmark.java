@@ -0,0 +1,139 @@
+package oscar.essential;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.exception.OscarException;
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+/**
+ * Compares the binary save format against the legacy serialized save file.
+ * The size of both files is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ItemCodecBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int size;
+
+    private Path directory;
+    private ItemList infos;
+    private ArrayList<Item> items;
+    private Storage storage;
+    private byte[] legacyBytes;
+
+    /**
+     * Fills an info list with a mix of every item type and writes both save files.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, OscarException {
+        directory = Files.createTempDirectory("oscar-codec");
+        infos = createItems(size);
+        items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(infos.get(i));
+        }
+        storage = new Storage(directory.resolve("infolist").toString());
+        storage.save(infos);
+        saveLegacy();
+        legacyBytes = Files.readAllBytes(directory.resolve("legacy"));
+        System.out.printf("%n%d items: binary %d bytes, legacy %d bytes%n", size,
+                storage.getSaveFileSize(), legacyBytes.length);
+    }
+
+    /**
+     * Removes the save files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        deleteDirectory(directory);
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    public static ItemList createItems(int size) {
+        ItemList result = new ItemList();
+        LocalDateTime start = LocalDateTime.of(2023, 9, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+            case 0:
+                result.add(new TodoTask("read chapter " + i));
+                break;
+            case 1:
+                result.add(new DeadlineTask("submit assignment " + i, start.plusHours(i)));
+                break;
+            case 2:
+                result.add(new EventTask("project meeting " + i, start.plusHours(i), start.plusHours(i + 2)));
+                break;
+            default:
+                result.add(new Note("remember to buy item " + i));
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void saveBinary() throws OscarException {
+        storage.save(infos);
+    }
+
+    @Benchmark
+    public ItemList loadBinary() throws OscarException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public void saveLegacy() throws IOException {
+        try (ObjectOutputStream stream = new ObjectOutputStream(
+                new FileOutputStream(directory.resolve("legacy").toFile()))) {
+            stream.writeObject(items);
+        }
+    }
+
+    @Benchmark
+    public ItemList loadLegacy() throws IOException, OscarException {
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(
+                Files.readAllBytes(directory.resolve("legacy"))))) {
+            return new ItemList(stream);
+        }
+    }
+}
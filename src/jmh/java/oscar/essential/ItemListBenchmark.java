@@ -0,0 +1,76 @@
+package oscar.essential;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.exception.OscarException;
+import oscar.item.Item;
+
+/**
+ * Measures the info list operations behind list, find and delete as the list grows.
+ * Each deleted item is added back at the end so that the size stays the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ItemListBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ItemList infos;
+
+    /**
+     * Fills an info list with a mix of every item type and builds its indexes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        infos = ItemCodecBenchmark.createItems(size);
+        infos.find("chapter 1");
+    }
+
+    @Benchmark
+    public String listAll() {
+        return infos.list();
+    }
+
+    @Benchmark
+    public String listPage() throws OscarException {
+        return infos.list(size / 40, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public String find() {
+        return infos.find("chapter 4217");
+    }
+
+    @Benchmark
+    public String findPage() {
+        return infos.find("chapter", 2, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Item deleteMiddle() {
+        int index = size / 2;
+        Item item = infos.get(index);
+        infos.delete(index);
+        infos.add(item);
+        return item;
+    }
+}
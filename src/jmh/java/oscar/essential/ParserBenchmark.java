@@ -0,0 +1,41 @@
+package oscar.essential;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.command.Command;
+import oscar.exception.OscarException;
+
+/**
+ * Measures how long the parser takes to turn a line of input into a command, for every command word.
+ * The gc profiler reports the bytes allocated per parse, which for info numbers is only the command itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"bye", "list 2 /size 50", "mark 12", "unmark 12", "delete 12", "todo read chapter 3",
+            "deadline submit assignment /by 2023-09-11 2359",
+            "event project meeting /from 2023-09-11 1400 /to 2023-09-11 1600", "note buy milk",
+            "find chapter", "upcoming 7d", "due before 2023-09-11 2359",
+            "overlapping /from 2023-09-11 0000 /to 2023-09-12 0000", "batch commands.txt"})
+    private String input;
+
+    @Benchmark
+    public Command parse() throws OscarException {
+        return Parser.parse(input);
+    }
+}
@@ -0,0 +1,116 @@
+package oscar.essential;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.exception.OscarException;
+import oscar.item.Task;
+
+/**
+ * Measures what crash safety costs per save: the checksum footer on its own, a snapshot with the generations
+ * rotated, and a single command persisted with fsync. Snapshots are measured with nothing changed, which writes
+ * only the manifest, and with one task in the middle of the list changed, which rewrites only its segment.
+ * Also measures loading the save file back, with its segments indexed in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    private Path directory;
+    private ItemList infos;
+    private Storage storage;
+    private ItemCodec.Output encoded;
+    private int index;
+    private int middleTask;
+
+    /**
+     * Saves an info list with a mix of every item type and keeps its encoding for the checksum benchmark.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, OscarException {
+        directory = Files.createTempDirectory("oscar-storage");
+        infos = ItemCodecBenchmark.createItems(size);
+        storage = new Storage(directory.resolve("infolist").toString());
+        storage.save(infos);
+        encoded = new ItemCodec.Output(size * 32);
+        ItemCodec.writeHeader(encoded, 0, size);
+        infos.writeItems(encoded, 0, Integer.MAX_VALUE);
+        middleTask = size / 2;
+        while (!(infos.get(middleTask) instanceof Task)) {
+            middleTask++;
+        }
+    }
+
+    /**
+     * Removes the save files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ItemCodecBenchmark.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public ItemCodec.Output checksum() {
+        ItemCodec.Output out = new ItemCodec.Output(encoded.size() + 4);
+        out.write(encoded);
+        ItemCodec.writeFooter(out);
+        return out;
+    }
+
+    @Benchmark
+    public void saveSnapshot() throws OscarException {
+        storage.save(infos);
+    }
+
+    @Benchmark
+    public void saveSnapshotAfterOneChange() throws OscarException {
+        if (((Task) infos.get(middleTask)).isDone()) {
+            infos.unmark(middleTask);
+            storage.recordUnmark(infos, middleTask);
+        } else {
+            infos.mark(middleTask);
+            storage.recordMark(infos, middleTask);
+        }
+        storage.save(infos);
+    }
+
+    @Benchmark
+    public ItemList load() throws OscarException {
+        return storage.load();
+    }
+
+    @Benchmark
+    public ItemList saveAndLoad() throws OscarException {
+        storage.save(infos);
+        return storage.load();
+    }
+
+    @Benchmark
+    public void markAndFlush() throws OscarException {
+        index = (index + 4) % size;
+        storage.recordMark(infos, index);
+        storage.flush();
+    }
+}
@@ -0,0 +1,81 @@
+package oscar.item;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares ways of rendering every deadline and event in a list, as list does: building a formatter for each
+ * date as items used to, and sharing one formatter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RenderBenchmark {
+    private static final String PATTERN = "MMM d yyyy h:mma";
+
+    @Param({"100000"})
+    private int size;
+
+    private Task[] items;
+
+    /**
+     * Creates deadlines and events in equal numbers, with every other one done.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new Task[size];
+        LocalDateTime start = LocalDateTime.of(2023, 9, 1, 9, 0);
+        for (int i = 0; i < size; i++) {
+            items[i] = i % 2 == 0
+                    ? new DeadlineTask("submit assignment " + i, start.plusHours(i))
+                    : new EventTask("project meeting " + i, start.plusHours(i), start.plusHours(i + 2));
+            if (i % 4 < 2) {
+                items[i].markAsDone();
+            }
+        }
+    }
+
+    @Benchmark
+    public long formatterPerDate() {
+        long length = 0;
+        for (Task item : items) {
+            String prefix = "[" + item.type + "][" + item.getStatusIcon() + "] " + item.description;
+            if (item instanceof DeadlineTask) {
+                length += (prefix + " (by: " + ((DeadlineTask) item).getDeadline()
+                        .format(DateTimeFormatter.ofPattern(PATTERN)) + ")").length();
+            } else {
+                EventTask event = (EventTask) item;
+                length += (prefix + " (from: " + event.getStart().format(DateTimeFormatter.ofPattern(PATTERN))
+                        + " to: " + event.getEnd().format(DateTimeFormatter.ofPattern(PATTERN)) + ")")
+                        .length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long sharedFormatter() {
+        long length = 0;
+        for (Task item : items) {
+            length += item.toString().length();
+        }
+        return length;
+    }
+}
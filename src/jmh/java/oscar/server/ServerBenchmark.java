@@ -0,0 +1,169 @@
+package oscar.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import oscar.Oscar;
+import oscar.exception.OscarException;
+
+/**
+ * Load generator for the server. Each benchmark thread is one client sending commands over loopback, while
+ * a number of idle connections stay open. Sampling every round trip reports the p50 and p99 latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ServerBenchmark {
+    private static final int SIZE = 10_000;
+    private static final int PIPELINE_DEPTH = 16;
+
+    @Param({"0", "1000"})
+    private int idleConnections;
+
+    private Path directory;
+    private OscarServer server;
+    private final List<SocketChannel> idle = new ArrayList<>();
+
+    /**
+     * Starts a server over a filled info list and opens the idle connections.
+     *
+     * @throws IOException Server cannot be started.
+     * @throws OscarException Info list cannot be filled.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, OscarException {
+        directory = Files.createTempDirectory("oscar-server");
+        Oscar oscar = new Oscar(directory.resolve("infolist").toString());
+        for (int i = 0; i < SIZE; i++) {
+            oscar.respond("todo read chapter " + i);
+        }
+        server = new OscarServer(oscar, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                Runtime.getRuntime().availableProcessors());
+        Thread thread = new Thread(() -> {
+            try {
+                server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, "oscar-server");
+        thread.setDaemon(true);
+        thread.start();
+        for (int i = 0; i < idleConnections; i++) {
+            idle.add(SocketChannel.open(address()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (SocketChannel channel : idle) {
+            channel.close();
+        }
+        server.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private InetSocketAddress address() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    /**
+     * One client connection with a blocking channel.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        private SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(1 << 16);
+        private ByteBuffer find;
+        private ByteBuffer pipelined;
+
+        @Setup(Level.Trial)
+        public void connect(ServerBenchmark benchmark) throws IOException {
+            channel = SocketChannel.open(benchmark.address());
+            channel.socket().setTcpNoDelay(true);
+            find = ByteBuffer.wrap("find chapter 4217\n".getBytes(StandardCharsets.UTF_8));
+            pipelined = ByteBuffer.wrap("find chapter 4217\n".repeat(PIPELINE_DEPTH).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Sends commands and waits for a response to each.
+         *
+         * @param request Encoded commands, one per line.
+         * @param count Number of commands.
+         * @return Number of bytes received.
+         * @throws IOException Connection failed.
+         */
+        int send(ByteBuffer request, int count) throws IOException {
+            request.rewind();
+            while (request.hasRemaining()) {
+                channel.write(request);
+            }
+            int received = 0;
+            int lines = 0;
+            while (lines < count) {
+                in.clear();
+                if (channel.read(in) < 0) {
+                    throw new IOException("Server closed the connection");
+                }
+                for (int i = 0; i < in.position(); i++) {
+                    if (in.get(i) == '\n') {
+                        lines++;
+                    }
+                }
+                received += in.position();
+            }
+            return received;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int roundTrip(Client client) throws IOException {
+        return client.send(client.find, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public int pipelined(Client client) throws IOException {
+        return client.send(client.pipelined, PIPELINE_DEPTH);
+    }
+}
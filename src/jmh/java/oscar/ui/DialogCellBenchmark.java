@@ -0,0 +1,150 @@
+package oscar.ui;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+import javafx.stage.Stage;
+
+/**
+ * Measures the conversation view after a long session: building a dialog box, refilling a reused cell, and
+ * the time from entering a command until the list view has laid out the new exchange.
+ * The list view holds the latest messages of oscar.benchmark.exchanges exchanges, as many as the window keeps,
+ * in a window of the default size. JavaFX has to be able to start, so run it on a desktop, or headless with a
+ * virtual display such as xvfb-run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class DialogCellBenchmark {
+    private static final int HISTORY_LIMIT = 1000; // messages kept by the window by default
+
+    @Param({"10000"})
+    private int exchanges;
+
+    private Image userImage;
+    private Image oscarImage;
+    private ObservableList<Message> history;
+    private ListView<Message> dialogList;
+    private DialogCell cell;
+    private Stage stage;
+    private int next;
+
+    /**
+     * Starts JavaFX and shows a list view filled with the latest messages of every exchange.
+     *
+     * @throws Exception JavaFX cannot start or show the window.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // already started by an earlier trial in this fork
+        }
+        Platform.setImplicitExit(false);
+        userImage = new Image(Objects.requireNonNull(getClass().getResource("/images/user.png")).toExternalForm());
+        oscarImage = new Image(Objects.requireNonNull(getClass().getResource("/images/oscar.png")).toExternalForm());
+        runOnFxThread(() -> {
+            history = FXCollections.observableArrayList();
+            for (int i = 0; i < exchanges; i++) {
+                addExchange(i);
+            }
+            dialogList = new ListView<>(history);
+            dialogList.setCellFactory(list -> new DialogCell(list, userImage, oscarImage));
+            stage = new Stage();
+            stage.setScene(new Scene(dialogList, 400, 600));
+            stage.show();
+            dialogList.scrollTo(history.size() - 1);
+            cell = new DialogCell(dialogList, userImage, oscarImage);
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        runOnFxThread(() -> {
+            stage.close();
+            return null;
+        });
+    }
+
+    private void addExchange(int i) {
+        history.addAll(new Message("todo read chapter " + i, true),
+                new Message("Oscar has added:\n[T][ ] read chapter " + i + "\n\nYou now have " + i
+                        + " items in the list.\n", false));
+        if (history.size() > HISTORY_LIMIT) {
+            history.remove(0, history.size() - HISTORY_LIMIT);
+        }
+    }
+
+    private static <T> T runOnFxThread(Callable<T> task) throws Exception {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    @Benchmark
+    public DialogBox newDialogBox() {
+        return new DialogBox();
+    }
+
+    /**
+     * Refills a cell that is not shown, alternating between messages from the user and from Oscar so that the
+     * dialog box flips each time.
+     */
+    @Benchmark
+    public Object updateItem() {
+        cell.updateItem(history.get(next++ % history.size()), false);
+        return cell.getGraphic();
+    }
+
+    /**
+     * Appends an exchange as the window does, scrolls to it and lays out the list view.
+     */
+    @Benchmark
+    public Object enterCommand() throws Exception {
+        return runOnFxThread(() -> {
+            addExchange(exchanges + next++);
+            dialogList.scrollTo(history.size() - 1);
+            dialogList.applyCss();
+            dialogList.layout();
+            return dialogList;
+        });
+    }
+}
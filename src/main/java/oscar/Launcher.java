@@ -1,12 +1,27 @@
 package oscar;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import javafx.application.Application;
+import oscar.console.OscarConsole;
+import oscar.server.OscarServer;
 
 /**
  * A launcher class to workaround classpath issues.
+ * Starting with --server runs Oscar as a headless server instead, and starting with --console runs it on the
+ * standard input and output, both without loading JavaFX.
  */
 public class Launcher {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            OscarServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--console")) {
+            OscarConsole.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application.launch(Main.class, args);
     }
 }
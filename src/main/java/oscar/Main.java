@@ -1,8 +1,11 @@
 package oscar;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -11,10 +14,13 @@ import oscar.ui.MainWindow;
 
 /**
  * A GUI for Oscar using FXML.
+ * The window is shown before the save file is read, and Oscar is loaded in the background. Starting with
+ * -Doscar.startup=report prints how long after the process started the window was shown and Oscar was ready,
+ * and -Doscar.startup=exit also closes Oscar once it is ready, for startup benchmarks and for training the
+ * class-data sharing archive.
  */
 public class Main extends Application {
-
-    private final Oscar oscar = new Oscar(Oscar.FILE_PATH);
+    private static final String STARTUP_MODE = System.getProperty("oscar.startup", "");
 
     @Override
     public void start(Stage stage) {
@@ -28,11 +34,34 @@ public class Main extends Application {
             stage.setScene(scene);
             stage.setMinHeight(600);
             stage.setMinWidth(400);
-            fxmlLoader.<MainWindow>getController().setOscar(oscar);
             stage.show();
+            long shown = millisSinceStart();
+            fxmlLoader.<MainWindow>getController().loadOscar(() -> new Oscar(Oscar.FILE_PATH))
+                    .thenRun(() -> reportStartup(shown));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
 
+    /**
+     * Reports how long Oscar took to start, if asked to by the oscar.startup system property.
+     *
+     * @param shown Milliseconds after the process started that the window was shown.
+     */
+    private static void reportStartup(long shown) {
+        if (STARTUP_MODE.isEmpty()) {
+            return;
+        }
+        System.out.printf("Oscar started: window shown after %d ms, infos loaded after %d ms%n", shown,
+                millisSinceStart());
+        if (STARTUP_MODE.equals("exit")) {
+            Platform.exit();
+        }
+    }
+
+    private static long millisSinceStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+}
@@ -1,44 +1,153 @@
 package oscar;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+import oscar.command.BatchCommand;
 import oscar.command.Command;
 import oscar.essential.ItemList;
 import oscar.essential.Parser;
 import oscar.essential.Storage;
 import oscar.exception.OscarException;
+import oscar.metrics.Metrics;
 
 /**
  * Chatbot named Oscar that can respond to user input.
  */
 public class Oscar {
-    static final String FILE_PATH = "./data/infolist";
+    public static final String FILE_PATH = "./data/infolist";
+    public static final String CANCELLED_MESSAGE = "Oscar has stopped working on this command.\n";
 
     private final Storage storage;
     private ItemList infos;
 
     /**
-     * Instantiates Oscar with saved data.
+     * Instantiates Oscar with saved data. The metrics are registered with JMX on a background thread, since
+     * starting the platform MBean server takes several times as long as reading the save file.
      *
      * @param filePath Location of saved info list.
      */
     public Oscar(String filePath) {
         storage = new Storage(filePath);
         try {
-            infos = new ItemList(storage.load());
+            infos = storage.load();
         } catch (OscarException e) {
             infos = new ItemList();
         }
+        storage.getMetrics().track(infos::getSize, storage::getSaveFileSize);
+        Thread registrar = new Thread(storage.getMetrics()::register, "oscar-metrics");
+        registrar.setDaemon(true);
+        registrar.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "oscar-shutdown"));
     }
 
     /**
-     * Obtains the response of Oscar based on the given user input.
+     * Holds back changes for a while before saving them, so that a long run of commands is saved in a few writes.
+     *
+     * @param writeDelay Milliseconds changes may wait before they are saved, none if zero.
+     */
+    public void setWriteDelay(long writeDelay) {
+        storage.setWriteDelay(writeDelay);
+    }
+
+    /**
+     * Waits for every change to be saved, such as before the JVM shuts down. Failures are reported on the
+     * standard error stream.
+     */
+    public void flush() {
+        try {
+            storage.flush();
+        } catch (OscarException e) {
+            System.err.print(e.getMessage());
+        }
+    }
+
+    /**
+     * Obtains the response of Oscar based on the given user input. It is safe to call from several threads.
+     * Commands that only read the info list run in parallel, while other commands run one at a time.
      *
      * @param input Typed user input
      * @return Response to command of user.
      */
     public String getResponse(String input) {
+        return getResponse(input, command -> { });
+    }
+
+    /**
+     * Obtains the response of Oscar based on the given user input, telling the caller which command is about to
+     * run. A query cancelled by interrupting the thread running it is answered with CANCELLED_MESSAGE.
+     *
+     * @param input Typed user input
+     * @param onParsed Called with the parsed command just before it runs. It may throw a CancellationException
+     *     to skip the command.
+     * @return Response to command of user.
+     */
+    public String getResponse(String input, Consumer<Command> onParsed) {
+        try {
+            return respond(input, onParsed);
+        } catch (OscarException e) {
+            return e.getMessage();
+        } catch (CancellationException e) {
+            return CANCELLED_MESSAGE;
+        }
+    }
+
+    /**
+     * Runs the given user input as a command, keeping failures apart from successful responses.
+     * It is safe to call from several threads, like getResponse. The time taken to parse and execute the
+     * command is recorded in the metrics.
+     *
+     * @param input Typed user input.
+     * @return Response to command of user.
+     * @throws OscarException Command is invalid or failed, with the message to show the user.
+     * @throws CancellationException Command is a query and the thread running it was interrupted.
+     */
+    public String respond(String input) throws OscarException {
+        return respond(input, command -> { });
+    }
+
+    /**
+     * Runs the given user input as a command, calling back with the command before it runs.
+     *
+     * @param input Typed user input.
+     * @param onParsed Called with the parsed command just before it runs.
+     * @return Response to command of user.
+     * @throws OscarException Command is invalid or failed, with the message to show the user.
+     */
+    private String respond(String input, Consumer<Command> onParsed) throws OscarException {
+        Metrics metrics = storage.getMetrics();
+        long start = System.nanoTime();
+        Command c;
+        try {
+            c = Parser.parse(input);
+        } catch (OscarException e) {
+            metrics.recordUnknown(System.nanoTime() - start);
+            throw e;
+        }
+        long parsed = System.nanoTime();
+        onParsed.accept(c);
+        boolean isOk = false;
+        try {
+            String response = c.isReadOnly()
+                    ? c.execute(infos, storage)
+                    : infos.runExclusively(() -> c.execute(infos, storage));
+            isOk = true;
+            return response;
+        } finally {
+            metrics.recordCommand(c, parsed - start, System.nanoTime() - parsed, isOk);
+        }
+    }
+
+    /**
+     * Runs the given commands as a single batch that is persisted once and rolled back if any command fails.
+     *
+     * @param inputs Typed user inputs.
+     * @return Summary of the batch, or the reason it was rolled back.
+     */
+    public String runBatch(List<String> inputs) {
         try {
-            Command c = Parser.parse(input);
-            return c.execute(infos, storage);
+            return infos.runExclusively(() -> new BatchCommand(inputs).execute(infos, storage));
         } catch (OscarException e) {
             return e.getMessage();
         }
@@ -0,0 +1,108 @@
+package oscar.command;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import oscar.essential.ItemList;
+import oscar.essential.Parser;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to run every command in a file as a single batch.
+ * Changes are persisted once at the end, and none are kept if any command fails.
+ */
+public class BatchCommand extends Command {
+    private final String details;
+    private final List<String> commands;
+
+    /**
+     * Instantiates a batch command that reads commands from a file.
+     *
+     * @param d Path of file with one command per line.
+     */
+    public BatchCommand(String d) {
+        this.details = d;
+        this.commands = null;
+    }
+
+    /**
+     * Instantiates a batch command with the given commands.
+     *
+     * @param commands Commands to run in order.
+     */
+    public BatchCommand(List<String> commands) {
+        this.details = "";
+        this.commands = commands;
+    }
+
+    /**
+     * Runs every command in the batch, then persists all changes in one write.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return Number of commands run and the throughput achieved.
+     * @throws OscarException Batch file cannot be read or a command in it failed.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        assert storage != null;
+        List<String> lines = commands != null ? commands : readFile();
+        long start = System.nanoTime();
+        int count = 0;
+        infos.begin();
+        storage.beginBatch();
+        try {
+            for (String line : lines) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                count++;
+                Command command = Parser.parse(line.strip());
+                if (command instanceof BatchCommand) {
+                    throw new OscarException("Sorry! A batch cannot run another batch.\n");
+                }
+                command.execute(infos, storage);
+            }
+        } catch (OscarException e) {
+            rollback(infos, storage);
+            throw new OscarException("Sorry! Command " + count + " of the batch failed, so no changes were made.\n"
+                    + e.getMessage());
+        } catch (RuntimeException e) {
+            rollback(infos, storage); // such as a query cancelled part way through the batch
+            throw e;
+        }
+        infos.commit();
+        storage.commitBatch(infos);
+        long elapsed = Math.max(System.nanoTime() - start, 1);
+        return "Oscar has run " + count + " commands in " + elapsed / 1_000_000 + " ms ("
+                + Math.round(count * 1e9 / elapsed) + " commands per second).\n" + infos.listCount();
+    }
+
+    private static void rollback(ItemList infos, Storage storage) {
+        infos.rollback();
+        storage.rollbackBatch();
+    }
+
+    /**
+     * Reads the commands in the batch file.
+     *
+     * @return Lines in the batch file.
+     * @throws OscarException Path is empty or the file cannot be read.
+     */
+    private List<String> readFile() throws OscarException {
+        if (details.isEmpty()) {
+            throw new OscarException("Sorry! Please enter the path of the batch file.\n");
+        }
+        try {
+            return Files.readAllLines(Paths.get(details), StandardCharsets.UTF_8);
+        } catch (IOException | InvalidPathException e) {
+            throw new OscarException("Sorry! Oscar cannot read the batch file " + details + ".\n");
+        }
+    }
+}
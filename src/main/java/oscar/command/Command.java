@@ -1,6 +1,8 @@
 package oscar.command;
 
 import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
+import java.util.regex.Pattern;
 
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
@@ -11,6 +13,8 @@ import oscar.exception.OscarException;
  */
 public abstract class Command {
     static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+    static final int DEFAULT_PAGE_SIZE = 20;
+    private static final Pattern SPACES = Pattern.compile(" +");
 
     /**
      * Validates the provided info number.
@@ -38,6 +42,112 @@ public abstract class Command {
         }
     }
 
+    /**
+     * Checks if the details select several infos, such as 10-500 or 1,4,9-20, rather than a single info number.
+     *
+     * @param details Details of command.
+     * @return True if the details contain a range or a list.
+     */
+    static boolean isSelection(String details) {
+        return details.indexOf(',') >= 0 || details.indexOf('-', 1) > 0;
+    }
+
+    /**
+     * Validates a selection of info numbers and ranges of info numbers.
+     * Format: [number or range],[number or range],..., where a range is [first]-[last].
+     *
+     * @param infos   ArrayList of infos.
+     * @param details Selected info numbers.
+     * @return Indexes of selected infos.
+     * @throws OscarException Info numbers are missing, not natural numbers, too large or in a reversed range.
+     */
+    public BitSet validateSelection(ItemList infos, String details) throws OscarException {
+        BitSet indexes = new BitSet();
+        for (String part : details.split(",")) {
+            String range = part.strip();
+            int dash = range.indexOf('-', 1);
+            int first = parseInfoNumber(dash < 0 ? range : range.substring(0, dash));
+            int last = dash < 0 ? first : parseInfoNumber(range.substring(dash + 1));
+            if (last < first) {
+                throw new OscarException("Sorry! The range " + range + " must start from the smaller info number.\n");
+            } else if (last > infos.getSize()) {
+                throw new OscarException("Sorry! Info number is too large.\n");
+            }
+            indexes.set(first - 1, last);
+        }
+        return indexes;
+    }
+
+    private static int parseInfoNumber(String text) throws OscarException {
+        try {
+            int number = Integer.parseInt(text.strip());
+            if (number <= 0) {
+                throw new OscarException("Sorry! Info numbers must be natural numbers.\n");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new OscarException("Sorry! Please enter info numbers and ranges such as '1,4,9-20'.\n");
+        }
+    }
+
+    /**
+     * Finds where the paging options start in the details of a command.
+     *
+     * @param details Details of command.
+     * @return Index of the first paging option, or the length of the details if there is none.
+     */
+    static int indexOfPaging(String details) {
+        for (int i = 0; i < details.length(); i = details.indexOf(' ', i) + 1) {
+            if (details.startsWith("--page ", i) || details.startsWith("--size ", i)) {
+                return i;
+            }
+            if (details.indexOf(' ', i) < 0) {
+                break;
+            }
+        }
+        return details.length();
+    }
+
+    /**
+     * Validates the paging options of a command. The page defaults to 1 and the size to 20.
+     * Format: --page [number] --size [number], in either order.
+     *
+     * @param options Paging options.
+     * @return Page number and number of items on each page.
+     * @throws OscarException Invalid paging options.
+     */
+    public int[] validatePaging(String options) throws OscarException {
+        int[] paging = {1, DEFAULT_PAGE_SIZE};
+        String[] tokens = SPACES.split(options.strip());
+        if (tokens.length % 2 != 0) {
+            throw new OscarException("Sorry! Please use the format: '--page [number] --size [number]'.\n");
+        }
+        for (int i = 0; i < tokens.length; i += 2) {
+            int option = tokens[i].equals("--page") ? 0 : tokens[i].equals("--size") ? 1 : -1;
+            if (option < 0) {
+                throw new OscarException("Sorry! Please use the format: '--page [number] --size [number]'.\n");
+            }
+            try {
+                paging[option] = Integer.parseInt(tokens[i + 1]);
+            } catch (NumberFormatException e) {
+                throw new OscarException("Sorry! Please enter a number after " + tokens[i] + ".\n");
+            }
+            if (paging[option] <= 0) {
+                throw new OscarException("Sorry! The number after " + tokens[i] + " must be a natural number.\n");
+            }
+        }
+        return paging;
+    }
+
+    /**
+     * Checks if the command only reads the info list, so that it can run alongside other commands.
+     *
+     * @return True if the command does not change the info list or the save file.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
     /**
      * Carries out the intended function of a command.
      *
@@ -37,13 +37,9 @@ public class DeadlineCommand extends Command {
         assert infos != null;
         assert storage != null;
         String[] validatedDetails = validate();
-        String description = validatedDetails[0];
-        String deadline = validatedDetails[1];
-        LocalDateTime deadlineDateTime = LocalDateTime.parse(deadline, DATE_TIME_FORMAT);
-
-        Task newDeadline = new DeadlineTask(description, deadlineDateTime);
+        Task newDeadline = new DeadlineTask(validatedDetails[0], validateDate(validatedDetails));
         infos.add(newDeadline);
-        storage.save(infos);
+        storage.recordAdd(infos, newDeadline);
         return "Oscar has added:\n" + newDeadline + "\n\n" + infos.listCount();
     }
 
@@ -60,23 +56,34 @@ public class DeadlineCommand extends Command {
                     + "The deadline task is not formatted correctly.\n"
                     + "Please use the format: 'deadline [task] /by yyyy-MM-dd HHmm'.\n");
         }
-        String[] splitDetails = details.split(" /by ", 2);
-        String description = splitDetails[0];
+        int separator = details.indexOf(" /by ");
+        String description = details.substring(0, separator);
         if (description.isEmpty()) {
             throw new OscarException("Sorry! "
                     + "The description of a deadline task cannot be empty.\n");
         }
-        String deadline = splitDetails[1];
+        String deadline = details.substring(separator + " /by ".length());
         if (!deadline.contains(" ")) {
             throw new OscarException("Sorry! "
                     + "Please enter a valid date and time in this format: '2019-10-15 1800'.\n");
         }
+        return new String[]{description, deadline};
+    }
+
+    /**
+     * Validates date and time of deadline task.
+     * Format: deadline [task] /by yyyy-MM-dd HHmm.
+     *
+     * @param validStringArray Description and deadline of deadline task.
+     * @return Date and time of deadline.
+     * @throws OscarException Invalid date and time entered.
+     */
+    public LocalDateTime validateDate(String[] validStringArray) throws OscarException {
         try {
-            LocalDateTime.parse(deadline, DATE_TIME_FORMAT);
+            return LocalDateTime.parse(validStringArray[1], DATE_TIME_FORMAT);
         } catch (DateTimeParseException e) {
             throw new OscarException("Sorry! "
                     + "Please enter a valid date and time in this format: '2019-10-15 1800'.\n");
         }
-        return new String[]{description, deadline};
     }
 }
@@ -1,11 +1,17 @@
 package oscar.command;
 
+import java.util.BitSet;
+import java.util.function.Predicate;
+
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
 import oscar.exception.OscarException;
+import oscar.item.Item;
+import oscar.item.Task;
 
 /**
- * Command to delete an info from the info list.
+ * Command to delete an info, a selection of infos, or every info that is done or contains a keyword.
+ * Deleting several infos drops them from the list in one pass and saves the change as one journal record.
  */
 public class DeleteCommand extends Command {
     private final String details;
@@ -13,14 +19,14 @@ public class DeleteCommand extends Command {
     /**
      * Instantiates a delete command.
      *
-     * @param d Info number to be deleted.
+     * @param d Info number, selection of info numbers, or --done or --matching [keyword].
      */
     public DeleteCommand(String d) {
         this.details = d;
     }
 
     /**
-     * Deletes an info using the info number.
+     * Deletes the infos given by the details.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
@@ -31,9 +37,42 @@ public class DeleteCommand extends Command {
     public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
         assert storage != null;
+        if (details.startsWith("--")) {
+            BitSet deleted = infos.deleteIf(validateFilter());
+            storage.recordDeleteAll(infos, deleted);
+            return removed(infos, deleted.cardinality());
+        }
+        if (isSelection(details)) {
+            BitSet indexes = validateSelection(infos, details);
+            infos.deleteAll(indexes);
+            storage.recordDeleteAll(infos, indexes);
+            return removed(infos, indexes.cardinality());
+        }
         int index = validateInt(infos, details);
         String currentInfo = infos.delete(index);
-        storage.save(infos);
+        storage.recordDelete(infos, index);
         return "Oscar has removed this info:\n" + currentInfo + "\n" + infos.listCount();
     }
+
+    private static String removed(ItemList infos, int count) {
+        return "Oscar has removed " + count + (count == 1 ? " info.\n" : " infos.\n") + infos.listCount();
+    }
+
+    /**
+     * Validates the filter selecting infos to delete.
+     * Format: delete --done or delete --matching [keyword].
+     *
+     * @return Filter that accepts infos to delete.
+     * @throws OscarException Unknown filter or missing keyword.
+     */
+    public Predicate<Item> validateFilter() throws OscarException {
+        if (details.equals("--done")) {
+            return item -> item instanceof Task && ((Task) item).isDone();
+        }
+        if (details.startsWith("--matching ") && !details.substring("--matching ".length()).isEmpty()) {
+            String keyword = details.substring("--matching ".length());
+            return item -> item.getDescription().contains(keyword);
+        }
+        throw new OscarException("Sorry! Please use 'delete --done' or 'delete --matching [keyword]'.\n");
+    }
 }
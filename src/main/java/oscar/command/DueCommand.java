@@ -0,0 +1,63 @@
+package oscar.command;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to list deadlines that are due before a date.
+ */
+public class DueCommand extends Command {
+    private final String details;
+
+    /**
+     * Instantiates a due command.
+     *
+     * @param d Date and time to compare deadlines against.
+     */
+    public DueCommand(String d) {
+        this.details = d;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Lists deadlines that are due before the date and time given.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return String output of due command.
+     * @throws OscarException Incorrect format of due command.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        return infos.findDueBefore(validate());
+    }
+
+    /**
+     * Validates details of due command.
+     * Format: due before yyyy-MM-dd HHmm.
+     *
+     * @return Date and time to compare deadlines against.
+     * @throws OscarException Incorrect format of due command.
+     */
+    public LocalDateTime validate() throws OscarException {
+        if (!details.startsWith("before ")) {
+            throw new OscarException("Sorry! The due command is not formatted correctly.\n"
+                    + "Please use the format: 'due before yyyy-MM-dd HHmm'.\n");
+        }
+        try {
+            return LocalDateTime.parse(details.substring("before ".length()), DATE_TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new OscarException("Sorry! "
+                    + "Please enter a valid date and time in this format: '2019-10-15 1800'.\n");
+        }
+    }
+}
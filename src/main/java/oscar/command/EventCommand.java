@@ -2,6 +2,7 @@ package oscar.command;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
 
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
@@ -13,6 +14,8 @@ import oscar.item.Task;
  * Command to create a new event task.
  */
 public class EventCommand extends Command {
+    private static final Pattern SEPARATOR = Pattern.compile(" /from | /to ");
+
     private final String details;
 
     /**
@@ -36,19 +39,11 @@ public class EventCommand extends Command {
     public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
         assert storage != null;
-
-
         String[] validatedDetails = validateString();
-        validateDate(validatedDetails);
-        String description = validatedDetails[0];
-        String start = validatedDetails[1];
-        String end = validatedDetails[2];
-        LocalDateTime startDateTime = LocalDateTime.parse(start, DATE_TIME_FORMAT);
-        LocalDateTime endDateTime = LocalDateTime.parse(end, DATE_TIME_FORMAT);
-
-        Task newEvent = new EventTask(description, startDateTime, endDateTime);
+        LocalDateTime[] period = validateDate(validatedDetails);
+        Task newEvent = new EventTask(validatedDetails[0], period[0], period[1]);
         infos.add(newEvent);
-        storage.save(infos);
+        storage.recordAdd(infos, newEvent);
         return "Oscar has added:\n" + newEvent + "\n" + infos.listCount();
     }
 
@@ -56,9 +51,11 @@ public class EventCommand extends Command {
      * Validates date and time of event task.
      * Format: event [task] /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm.
      *
+     * @param validStringArray Description, start and end date and time of event task.
+     * @return Start and end date and time of event task.
      * @throws OscarException Invalid date and time entered.
      */
-    public void validateDate(String[] validStringArray) throws OscarException {
+    public LocalDateTime[] validateDate(String[] validStringArray) throws OscarException {
         try {
             String start = validStringArray[1];
             String end = validStringArray[2];
@@ -67,6 +64,7 @@ public class EventCommand extends Command {
             if (endDateTime.isBefore(startDateTime)) {
                 throw new OscarException("Sorry! End date and time must be after start date and time.\n");
             }
+            return new LocalDateTime[]{startDateTime, endDateTime};
         } catch (DateTimeParseException e) {
             throw new OscarException("Sorry! Please enter a valid date and time in the format 'yyyy-MM-dd HHmm'.\n");
         }
@@ -84,7 +82,7 @@ public class EventCommand extends Command {
             throw new OscarException("Sorry! The event task is not formatted correctly.\n"
                     + "Please use the format: 'event [task] /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm'.\n");
         }
-        String[] splitDetails = details.split(" /from | /to ");
+        String[] splitDetails = SEPARATOR.split(details);
         if (splitDetails.length != 3) {
             throw new OscarException("Sorry! The event task is not formatted correctly.\n"
                     + "Please use the format: 'event [task] /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm'.\n");
@@ -2,6 +2,7 @@ package oscar.command;
 
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
+import oscar.exception.OscarException;
 
 /**
  * Command to terminate Oscar.
@@ -9,14 +10,16 @@ import oscar.essential.Storage;
 public class ExitCommand extends Command {
     public static final String EXIT_MESSAGE = "Goodbye for now. Oscar hopes to see you again soon!\n";
     /**
-     * Displays message when terminating Oscar.
+     * Displays message when terminating Oscar, once every change has been saved.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
      * @return
+     * @throws OscarException Changes could not be saved, so Oscar should not terminate yet.
      */
     @Override
-    public String execute(ItemList infos, Storage storage) {
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        storage.flush();
         return EXIT_MESSAGE;
     }
 }
@@ -1,26 +1,70 @@
 package oscar.command;
 
 import oscar.essential.ItemList;
+import oscar.essential.Query;
 import oscar.essential.Storage;
 import oscar.exception.OscarException;
 
 /**
  * Command to find a task in the info list.
+ * Format: find [--regex] [--ignore-case] [--fuzzy] [term] [paging options], or
+ * find --operators [other options] [term] [AND term]... [OR term]... [paging options] to combine terms.
  */
 public class FindCommand extends Command {
+    private static final String REGEX = "--regex";
+    private static final String IGNORE_CASE = "--ignore-case";
+    private static final String FUZZY = "--fuzzy";
+    private static final String OPERATORS = "--operators";
+
     private final String keyword;
+    private final String options;
+    private boolean isRegex;
+    private boolean isIgnoreCase;
+    private boolean isFuzzy;
+    private boolean hasOperators;
 
     /**
      * Instantiates a find command.
      *
-     * @param k String used to find infos.
+     * @param k String used to find infos, optionally preceded by matching options and followed by paging options.
      */
     public FindCommand(String k) {
-        this.keyword = k;
+        int pagingStart = indexOfPaging(k);
+        String terms = pagingStart == k.length() ? k : k.substring(0, Math.max(pagingStart - 1, 0));
+        int termStart = 0;
+        while (true) {
+            if (hasOption(terms, termStart, REGEX)) {
+                isRegex = true;
+                termStart += REGEX.length() + 1;
+            } else if (hasOption(terms, termStart, IGNORE_CASE)) {
+                isIgnoreCase = true;
+                termStart += IGNORE_CASE.length() + 1;
+            } else if (hasOption(terms, termStart, FUZZY)) {
+                isFuzzy = true;
+                termStart += FUZZY.length() + 1;
+            } else if (hasOption(terms, termStart, OPERATORS)) {
+                hasOperators = true;
+                termStart += OPERATORS.length() + 1;
+            } else {
+                break;
+            }
+        }
+        this.keyword = terms.substring(Math.min(termStart, terms.length()));
+        this.options = k.substring(pagingStart);
+    }
+
+    private static boolean hasOption(String terms, int start, String option) {
+        int end = start + option.length();
+        return terms.startsWith(option, start) && (end == terms.length() || terms.charAt(end) == ' ');
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 
     /**
-     * Find an info by searching for a keyword.
+     * Find an info by searching for its terms, one page at a time if paging options are given.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
@@ -31,7 +75,12 @@ public class FindCommand extends Command {
     public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
         validate();
-        return infos.find(keyword);
+        Query query = Query.parse(keyword, hasOperators, isRegex, isIgnoreCase, isFuzzy);
+        if (options.isEmpty()) {
+            return infos.find(query);
+        }
+        int[] paging = validatePaging(options);
+        return infos.find(query, paging[0], paging[1]);
     }
 
     /**
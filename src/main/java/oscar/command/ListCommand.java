@@ -2,21 +2,50 @@ package oscar.command;
 
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
+import oscar.exception.OscarException;
 
 /**
  * Command to list infos in the info list.
  */
 public class ListCommand extends Command {
+    private final String details;
+
+    /**
+     * Instantiates a list command that lists every info.
+     */
+    public ListCommand() {
+        this("");
+    }
+
+    /**
+     * Instantiates a list command.
+     *
+     * @param d Paging options, or anything else to list every info as before paging was added.
+     */
+    public ListCommand(String d) {
+        this.details = d;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     /**
-     * Lists stored infos in chronological order of addition.
+     * Lists stored infos in chronological order of addition, one page at a time if paging options are given.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
-     * @return
+     * @return Infos in the info list or on the page.
+     * @throws OscarException Invalid paging options.
      */
     @Override
-    public String execute(ItemList infos, Storage storage) {
+    public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
-        return infos.list();
+        if (!details.strip().startsWith("--")) {
+            return infos.list();
+        }
+        int[] paging = validatePaging(details);
+        return infos.list(paging[0], paging[1]);
     }
 }
@@ -1,5 +1,7 @@
 package oscar.command;
 
+import java.util.BitSet;
+
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
 import oscar.exception.OscarException;
@@ -13,14 +15,14 @@ public class MarkCommand extends Command {
     /**
      * Instantiates a mark command.
      *
-     * @param d Task number to be marked.
+     * @param d Task number, or a selection of task numbers such as 1,4,9-20.
      */
     public MarkCommand(String d) {
         this.details = d;
     }
 
     /**
-     * Marks a task as done using the task number.
+     * Marks a task, or every task in a selection, as done.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
@@ -31,10 +33,20 @@ public class MarkCommand extends Command {
     public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
         assert storage != null;
+        if (isSelection(details)) {
+            BitSet indexes = validateSelection(infos, details);
+            BitSet changed = infos.markAll(indexes, true);
+            storage.recordMarkAll(infos, changed, true);
+            int count = changed.cardinality();
+            int skipped = indexes.cardinality() - count;
+            return "Nice! Oscar has marked " + count + (count == 1 ? " task" : " tasks") + " as done.\n"
+                    + (skipped == 0 ? "" : skipped + (skipped == 1 ? " selected info was" : " selected infos were")
+                            + " skipped as notes or tasks already done.\n");
+        }
         int index = validateInt(infos, details);
         try {
             String currentTask = infos.mark(index);
-            storage.save(infos);
+            storage.recordMark(infos, index);
             return "Nice! Oscar has marked this task as done:\n" + currentTask + "\n";
         } catch (OscarException e) {
             return e.getMessage();
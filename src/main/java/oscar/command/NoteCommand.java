@@ -35,7 +35,7 @@ public class NoteCommand extends Command {
         validate();
         Note newNote = new Note(details);
         infos.add(newNote);
-        storage.save(infos);
+        storage.recordAdd(infos, newNote);
         infos.listCount();
         return "Oscar has added:\n" + newNote + "\n";
     }
@@ -0,0 +1,69 @@
+package oscar.command;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to list deadlines and events within a period.
+ */
+public class OverlappingCommand extends Command {
+    private final String details;
+
+    /**
+     * Instantiates an overlapping command.
+     *
+     * @param d Start and end of period.
+     */
+    public OverlappingCommand(String d) {
+        this.details = d;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Lists deadlines due within the period and events that overlap it.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return String output of overlapping command.
+     * @throws OscarException Incorrect format of overlapping command.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        LocalDateTime[] period = validate();
+        return infos.findOverlapping(period[0], period[1]);
+    }
+
+    /**
+     * Validates the start and end of the period.
+     * Format: overlapping /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm.
+     *
+     * @return Start and end of period.
+     * @throws OscarException Incorrect format of overlapping command.
+     */
+    public LocalDateTime[] validate() throws OscarException {
+        int separator = details.indexOf(" /to ", "/from ".length());
+        if (!details.startsWith("/from ") || separator < 0) {
+            throw new OscarException("Sorry! The overlapping command is not formatted correctly.\n"
+                    + "Please use the format: 'overlapping /from yyyy-MM-dd HHmm /to yyyy-MM-dd HHmm'.\n");
+        }
+        try {
+            LocalDateTime from = LocalDateTime.parse(details.substring("/from ".length(), separator), DATE_TIME_FORMAT);
+            LocalDateTime to = LocalDateTime.parse(details.substring(separator + " /to ".length()), DATE_TIME_FORMAT);
+            if (to.isBefore(from)) {
+                throw new OscarException("Sorry! End date and time must be after start date and time.\n");
+            }
+            return new LocalDateTime[]{from, to};
+        } catch (DateTimeParseException e) {
+            throw new OscarException("Sorry! Please enter a valid date and time in the format 'yyyy-MM-dd HHmm'.\n");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package oscar.command;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to apply the latest change that was undone again.
+ */
+public class RedoCommand extends Command {
+    /**
+     * Redoes the latest change that was undone, as long as nothing has changed since.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return String output of redo command.
+     * @throws OscarException There is no change to redo.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        assert storage != null;
+        String change = infos.redo();
+        storage.recordRedo(infos);
+        return "Oscar has redone the change that " + change + ".\n" + infos.listCount();
+    }
+}
@@ -0,0 +1,27 @@
+package oscar.command;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+
+/**
+ * Command to show how many commands Oscar has run and how long they took.
+ */
+public class StatsCommand extends Command {
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Summarises the metrics recorded since Oscar started.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return Counts and times of commands and writes to the save file.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) {
+        assert storage != null;
+        return storage.getMetrics().getReport();
+    }
+}
@@ -36,7 +36,7 @@ public class TodoCommand extends Command {
         validate();
         Task newTodo = new TodoTask(details);
         infos.add(newTodo);
-        storage.save(infos);
+        storage.recordAdd(infos, newTodo);
         infos.listCount();
         return "Oscar has added:\n" + newTodo + "\n";
     }
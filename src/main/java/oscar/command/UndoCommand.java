@@ -0,0 +1,27 @@
+package oscar.command;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to undo the latest change to the info list.
+ */
+public class UndoCommand extends Command {
+    /**
+     * Undoes the latest change that has not been undone, such as an added item or a batch of commands.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return String output of undo command.
+     * @throws OscarException There is no change to undo.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        assert storage != null;
+        String change = infos.undo();
+        storage.recordUndo(infos);
+        return "Oscar has undone the change that " + change + ".\n" + infos.listCount();
+    }
+}
@@ -1,5 +1,7 @@
 package oscar.command;
 
+import java.util.BitSet;
+
 import oscar.essential.ItemList;
 import oscar.essential.Storage;
 import oscar.exception.OscarException;
@@ -13,14 +15,14 @@ public class UnmarkCommand extends Command {
     /**
      * Instantiates an unmark command.
      *
-     * @param d Task number to be marked.
+     * @param d Task number, or a selection of task numbers such as 1,4,9-20.
      */
     public UnmarkCommand(String d) {
         this.details = d;
     }
 
     /**
-     * Marks a task as not done using the task number.
+     * Marks a task, or every task in a selection, as not done.
      *
      * @param infos   ArrayList of infos.
      * @param storage File loading and saving handler.
@@ -31,9 +33,19 @@ public class UnmarkCommand extends Command {
     public String execute(ItemList infos, Storage storage) throws OscarException {
         assert infos != null;
         assert storage != null;
+        if (isSelection(details)) {
+            BitSet indexes = validateSelection(infos, details);
+            BitSet changed = infos.markAll(indexes, false);
+            storage.recordMarkAll(infos, changed, false);
+            int count = changed.cardinality();
+            int skipped = indexes.cardinality() - count;
+            return "Oscar has marked " + count + (count == 1 ? " task" : " tasks") + " as not done yet.\n"
+                    + (skipped == 0 ? "" : skipped + (skipped == 1 ? " selected info was" : " selected infos were")
+                            + " skipped as notes or tasks not done.\n");
+        }
         int index = validateInt(infos, details);
         String currentTask = infos.unmark(index);
-        storage.save(infos);
+        storage.recordUnmark(infos, index);
         return "Oscar has marked this task as not done yet:\n" + currentTask + "\n";
     }
 }
@@ -0,0 +1,69 @@
+package oscar.command;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+/**
+ * Command to list deadlines and events within a period from now.
+ */
+public class UpcomingCommand extends Command {
+    private static final Pattern PERIOD = Pattern.compile("[0-9]{1,5}[hdwHDW]");
+
+    private final String details;
+
+    /**
+     * Instantiates an upcoming command.
+     *
+     * @param d Length of period, such as 7d.
+     */
+    public UpcomingCommand(String d) {
+        this.details = d;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Lists deadlines due and events taking place between now and the end of the period.
+     *
+     * @param infos   ArrayList of infos.
+     * @param storage File loading and saving handler.
+     * @return String output of upcoming command.
+     * @throws OscarException Incorrect format of upcoming command.
+     */
+    @Override
+    public String execute(ItemList infos, Storage storage) throws OscarException {
+        assert infos != null;
+        LocalDateTime now = LocalDateTime.now();
+        return infos.findOverlapping(now, validate(now));
+    }
+
+    /**
+     * Validates the period, given as a number of hours, days or weeks.
+     * Format: upcoming [number][h/d/w].
+     *
+     * @param now Start of period.
+     * @return End of period.
+     * @throws OscarException Incorrect format of period.
+     */
+    public LocalDateTime validate(LocalDateTime now) throws OscarException {
+        if (!PERIOD.matcher(details).matches()) {
+            throw new OscarException("Sorry! Please enter a period in this format: '12h', '7d' or '2w'.\n");
+        }
+        int amount = Integer.parseInt(details.substring(0, details.length() - 1));
+        switch (Character.toLowerCase(details.charAt(details.length() - 1))) {
+        case 'h':
+            return now.plusHours(amount);
+        case 'd':
+            return now.plusDays(amount);
+        default:
+            return now.plusWeeks(amount);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package oscar.console;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import oscar.Oscar;
+import oscar.command.ExitCommand;
+import oscar.exception.OscarException;
+
+/**
+ * Headless console that runs Oscar commands read from the standard input or a file, one command per line, and
+ * writes each response followed by a blank line. It loads no JavaFX classes, so it suits scripts and pipes.
+ * Input is read in large blocks, and responses are gathered and written in large blocks too. Responses are
+ * written before waiting for more input, so a person typing commands still sees each response straight away.
+ * Changes are saved by the background writer in a few large writes, and every change is saved by the end.
+ */
+public class OscarConsole {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16; // characters of responses gathered before writing
+    private static final int WRITE_DELAY = Math.max(Integer.getInteger("oscar.flush", 1000), 0); // milliseconds
+
+    private final Oscar oscar;
+    private final ReadableByteChannel in;
+    private final WritableByteChannel out;
+    private final StringBuilder responses = new StringBuilder(WRITE_BUFFER_SIZE);
+    private byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+
+    /**
+     * Instantiates a console reading commands from one channel and writing responses to another.
+     *
+     * @param oscar Oscar that runs every command.
+     * @param in Source of commands.
+     * @param out Destination of responses.
+     */
+    public OscarConsole(Oscar oscar, ReadableByteChannel in, WritableByteChannel out) {
+        this.oscar = oscar;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Runs the commands in a file, or on the standard input if no file is given, until the input ends or
+     * Oscar is told bye.
+     *
+     * @param args File of commands, if not the standard input.
+     * @throws IOException Unable to read the commands or write the responses.
+     */
+    public static void main(String[] args) throws IOException {
+        Oscar oscar = new Oscar(Oscar.FILE_PATH);
+        oscar.setWriteDelay(WRITE_DELAY);
+        try (ReadableByteChannel in = args.length > 0
+                    ? FileChannel.open(Paths.get(args[0]))
+                    : new FileInputStream(FileDescriptor.in).getChannel();
+                WritableByteChannel out = new FileOutputStream(FileDescriptor.out).getChannel()) {
+            new OscarConsole(oscar, in, out).run();
+        } finally {
+            oscar.flush();
+        }
+    }
+
+    /**
+     * Greets the user, then reads and runs commands until the input ends or Oscar is told bye.
+     * Blank lines are skipped, and a last line without a line break is still run.
+     *
+     * @throws IOException Unable to read the commands or write the responses.
+     */
+    public void run() throws IOException {
+        respond(oscar.greet());
+        int lineStart = 0;
+        int scanned = 0;
+        int length = 0;
+        while (true) {
+            int lineEnd = indexOfLineBreak(scanned, length);
+            if (lineEnd >= 0) {
+                if (!runLine(lineStart, lineEnd)) {
+                    break;
+                }
+                lineStart = lineEnd + 1;
+                scanned = lineStart;
+                continue;
+            }
+            scanned = length;
+            writeResponses();
+            if (lineStart > 0) {
+                System.arraycopy(readBuffer, lineStart, readBuffer, 0, length - lineStart);
+                length -= lineStart;
+                scanned -= lineStart;
+                lineStart = 0;
+            } else if (length == readBuffer.length) {
+                readBuffer = Arrays.copyOf(readBuffer, readBuffer.length * 2); // line longer than the buffer
+            }
+            int count = in.read(ByteBuffer.wrap(readBuffer, length, readBuffer.length - length));
+            if (count < 0) {
+                runLine(lineStart, length);
+                break;
+            }
+            length += count;
+        }
+        writeResponses();
+    }
+
+    private int indexOfLineBreak(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (readBuffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs one line of input as a command.
+     *
+     * @param from Index of the first byte of the line.
+     * @param to Index of the line break ending the line.
+     * @return False if Oscar was told bye.
+     * @throws IOException Unable to write the responses.
+     */
+    private boolean runLine(int from, int to) throws IOException {
+        int end = to > from && readBuffer[to - 1] == '\r' ? to - 1 : to;
+        String command = new String(readBuffer, from, end - from, StandardCharsets.UTF_8);
+        if (command.isBlank()) {
+            return true;
+        }
+        String response;
+        boolean isOk = false;
+        try {
+            response = oscar.respond(command);
+            isOk = true;
+        } catch (OscarException e) {
+            response = e.getMessage();
+        } catch (RuntimeException e) {
+            response = "Sorry! Oscar could not run this command.\n";
+        }
+        respond(response);
+        return !isOk || !response.equals(ExitCommand.EXIT_MESSAGE);
+    }
+
+    private void respond(String response) throws IOException {
+        responses.append(response).append('\n');
+        if (responses.length() >= WRITE_BUFFER_SIZE) {
+            writeResponses();
+        }
+    }
+
+    /**
+     * Encodes every gathered response and writes it out.
+     *
+     * @throws IOException Unable to write the responses.
+     */
+    private void writeResponses() throws IOException {
+        if (responses.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(responses.toString().getBytes(StandardCharsets.UTF_8));
+        responses.setLength(0);
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+}
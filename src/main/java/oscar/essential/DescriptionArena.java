@@ -0,0 +1,167 @@
+package oscar.essential;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of item descriptions, each encoded once as a varint length followed by its UTF-8 bytes,
+ * the same encoding as in a save file. A description that is already stored is found through an open-addressing
+ * table of offsets and shared, so repeated descriptions cost a few bytes each.
+ * Stored bytes are never overwritten, so a view taken for a snapshot stays valid while descriptions are added.
+ */
+final class DescriptionArena {
+    private byte[] bytes;
+    private int size;
+    private int[] table; // offset + 1 of each distinct description, or 0 for an empty slot
+    private int entries;
+
+    /**
+     * Creates an empty arena.
+     */
+    DescriptionArena() {
+        this(new byte[256], 0, new int[16]);
+    }
+
+    private DescriptionArena(byte[] bytes, int size, int[] table) {
+        this.bytes = bytes;
+        this.size = size;
+        this.table = table;
+    }
+
+    /**
+     * Stores a description unless an identical one is already stored.
+     *
+     * @param description Description to store.
+     * @return Offset of the stored description.
+     */
+    int add(String description) {
+        byte[] utf8 = description.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(utf8, 0, utf8.length);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int offset = table[slot] - 1;
+            if (equalsAt(offset, utf8)) {
+                return offset;
+            }
+            slot = (slot + 1) & mask;
+        }
+        ensureCapacity(utf8.length + 5);
+        int offset = size;
+        int length = utf8.length;
+        while ((length & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        bytes[size++] = (byte) length;
+        System.arraycopy(utf8, 0, bytes, size, utf8.length);
+        size += utf8.length;
+        table[slot] = offset + 1;
+        entries++;
+        if (entries * 2 > table.length) {
+            rehash();
+        }
+        return offset;
+    }
+
+    /**
+     * Decodes a stored description.
+     *
+     * @param offset Offset of description.
+     * @return Description.
+     */
+    String get(int offset) {
+        int start = offset + varintLength(lengthAt(offset));
+        return new String(bytes, start, lengthAt(offset), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies a stored description in its save file encoding.
+     *
+     * @param out Destination of encoded description.
+     * @param offset Offset of description.
+     */
+    void write(ItemCodec.Output out, int offset) {
+        int length = lengthAt(offset);
+        out.write(ByteBuffer.wrap(bytes), offset, varintLength(length) + length);
+    }
+
+    /**
+     * Creates a read-only view of the descriptions stored so far, which later additions do not disturb.
+     *
+     * @return View of arena.
+     */
+    DescriptionArena view() {
+        return new DescriptionArena(bytes, size, null);
+    }
+
+    /**
+     * Obtains the number of distinct descriptions stored.
+     *
+     * @return Number of descriptions.
+     */
+    int getEntries() {
+        return entries;
+    }
+
+    private int lengthAt(int offset) {
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = bytes[offset++];
+            length |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return length;
+            }
+        }
+    }
+
+    private boolean equalsAt(int offset, byte[] utf8) {
+        int start = offset + varintLength(utf8.length);
+        return lengthAt(offset) == utf8.length
+                && Arrays.equals(bytes, start, start + utf8.length, utf8, 0, utf8.length);
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+    private static int hash(byte[] values, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + values[i];
+        }
+        hash *= 0x9E3779B9; // spreads descriptions that differ only at the end, such as numbered tasks
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rehash() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        int mask = table.length - 1;
+        for (int entry : old) {
+            if (entry == 0) {
+                continue;
+            }
+            int offset = entry - 1;
+            int length = lengthAt(offset);
+            int start = offset + varintLength(length);
+            int slot = hash(bytes, start, start + length) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry;
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+    }
+}
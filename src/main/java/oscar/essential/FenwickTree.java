@@ -0,0 +1,89 @@
+package oscar.essential;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick tree that counts live slots so that the position of a slot and the slot at a position can both be
+ * found in O(log n) while deleted slots are still in place.
+ */
+class FenwickTree {
+    private int[] tree;
+    private int size;
+
+    /**
+     * Creates a tree where every slot is live.
+     *
+     * @param size Number of slots.
+     */
+    FenwickTree(int size) {
+        this.tree = new int[Math.max(size, 16) + 1];
+        this.size = size;
+        for (int i = 1; i <= size; i++) {
+            tree[i] = i & -i;
+        }
+    }
+
+    private FenwickTree(int[] tree, int size) {
+        this.tree = tree;
+        this.size = size;
+    }
+
+    FenwickTree copy() {
+        return new FenwickTree(Arrays.copyOf(tree, size + 1), size);
+    }
+
+    /**
+     * Adds a live slot after the last slot.
+     */
+    void append() {
+        size++;
+        if (size == tree.length) {
+            tree = Arrays.copyOf(tree, tree.length * 2);
+        }
+        tree[size] = 1 + countBefore(size - 1) - countBefore(size - (size & -size));
+    }
+
+    /**
+     * Changes the count of a slot.
+     *
+     * @param slot Slot changed.
+     * @param delta 1 when the slot becomes live, -1 when it is deleted.
+     */
+    void add(int slot, int delta) {
+        for (int i = slot + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Counts the live slots before a slot, which is the position of the slot if it is live.
+     *
+     * @param slot Slot to count up to.
+     * @return Number of live slots before it.
+     */
+    int countBefore(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Finds the slot of the live item at a position.
+     *
+     * @param position Position among live slots, starting from 0.
+     * @return Slot holding that position.
+     */
+    int find(int position) {
+        int slot = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            if (slot + step <= size && tree[slot + step] <= remaining) {
+                slot += step;
+                remaining -= tree[slot];
+            }
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,300 @@
+package oscar.essential;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Changes to the info list that can be undone and redone, kept as a log of the operations each change applied.
+ * A step is everything one command or batch of commands changed, as operations on the stable IDs of the items
+ * it changed, so a step takes a few bytes for each item changed rather than a copy of the list.
+ * Undoing an addition deletes the item again and undoing a deletion revives the item, which stays in its slot
+ * as a tombstone while any step refers to it. Only the latest steps are kept, up to the depth of the history.
+ */
+final class History {
+    static final byte ADDED = 1;
+    static final byte DELETED = 2;
+    static final byte MARKED = 3;
+    static final byte UNMARKED = 4;
+
+    private final int depth;
+    private final ArrayDeque<Step> undoSteps;
+    private final ArrayDeque<Step> redoSteps;
+    private Step recording;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param depth Number of steps kept for undoing, none if zero.
+     */
+    History(int depth) {
+        this(depth, new ArrayDeque<>(), new ArrayDeque<>());
+    }
+
+    private History(int depth, ArrayDeque<Step> undoSteps, ArrayDeque<Step> redoSteps) {
+        this.depth = depth;
+        this.undoSteps = undoSteps;
+        this.redoSteps = redoSteps;
+    }
+
+    /**
+     * Starts recording the changes of a batch as a single step.
+     */
+    void begin() {
+        recording = new Step();
+    }
+
+    boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Records an operation, as a step of its own unless a batch is being recorded.
+     * Any step that was undone can no longer be redone.
+     *
+     * @param operation Operation applied.
+     * @param ids IDs of the items changed, in ascending order.
+     */
+    void record(byte operation, int... ids) {
+        if (ids.length == 0) {
+            return;
+        }
+        if (recording != null) {
+            recording.add(operation, ids);
+            return;
+        }
+        Step step = new Step();
+        step.add(operation, ids);
+        push(step);
+    }
+
+    /**
+     * Keeps every change recorded since the batch began as a single step.
+     */
+    void commit() {
+        Step step = recording;
+        recording = null;
+        if (step != null && step.size() > 0) {
+            push(step);
+        }
+    }
+
+    /**
+     * Stops recording the batch, so that its changes can be undone without being kept.
+     *
+     * @return Changes recorded since the batch began, or null if no batch was being recorded.
+     */
+    Step rollback() {
+        Step step = recording;
+        recording = null;
+        return step;
+    }
+
+    private void push(Step step) {
+        redoSteps.clear();
+        if (depth == 0) {
+            return;
+        }
+        undoSteps.addLast(step);
+        if (undoSteps.size() > depth) {
+            undoSteps.pollFirst();
+        }
+    }
+
+    /**
+     * Takes the latest step so that it can be undone, keeping it to be redone.
+     *
+     * @return Step to undo, or null if there is none.
+     */
+    Step undo() {
+        Step step = undoSteps.pollLast();
+        if (step != null) {
+            redoSteps.addLast(step);
+        }
+        return step;
+    }
+
+    /**
+     * Takes the latest step that was undone so that it can be applied again.
+     *
+     * @return Step to redo, or null if there is none.
+     */
+    Step redo() {
+        Step step = redoSteps.pollLast();
+        if (step != null) {
+            undoSteps.addLast(step);
+        }
+        return step;
+    }
+
+    /**
+     * Visits the ID of every item that a step refers to, including the batch being recorded.
+     *
+     * @param action Action to run on each ID.
+     */
+    void forEachId(IntConsumer action) {
+        for (Step step : undoSteps) {
+            step.forEachId(action);
+        }
+        for (Step step : redoSteps) {
+            step.forEachId(action);
+        }
+        if (recording != null) {
+            recording.forEachId(action);
+        }
+    }
+
+    /**
+     * Creates a copy of the steps that can be saved while this history keeps changing. Steps are not changed once
+     * they are kept, so they are shared.
+     *
+     * @return Copy of history without any batch being recorded.
+     */
+    History copy() {
+        return new History(depth, new ArrayDeque<>(undoSteps), new ArrayDeque<>(redoSteps));
+    }
+
+    /**
+     * Encodes the steps to undo, oldest first, and then the steps to redo, latest undone last.
+     * Each step is its number of operations followed by each operation, its number of items and the gaps
+     * between the items in ascending order.
+     *
+     * @param out Destination of encoded history.
+     * @param slotOfId Function giving the slot in the saved list of each ID.
+     */
+    void write(ItemCodec.Output out, IntUnaryOperator slotOfId) {
+        for (ArrayDeque<Step> steps : Arrays.asList(undoSteps, redoSteps)) {
+            out.writeVarLong(steps.size());
+            for (Step step : steps) {
+                out.writeVarLong(step.size());
+                for (int i = 0; i < step.size(); i++) {
+                    int[] ids = step.getIds(i);
+                    out.write(step.getOperation(i));
+                    out.writeVarLong(ids.length);
+                    int previous = 0;
+                    for (int id : ids) {
+                        int slot = slotOfId.applyAsInt(id);
+                        out.writeVarLong(slot - previous);
+                        previous = slot;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a history written by {@link #write}, in which items are identified by their slots. Steps past the
+     * depth are dropped.
+     *
+     * @param in Buffer positioned at an encoded history.
+     * @param depth Number of steps kept for undoing.
+     * @param slotCount Number of slots in the saved list.
+     * @return Decoded history.
+     * @throws IOException History refers to a slot that is not in the list or an unknown operation.
+     */
+    static History read(ByteBuffer in, int depth, int slotCount) throws IOException {
+        History history = new History(depth);
+        for (ArrayDeque<Step> steps : Arrays.asList(history.undoSteps, history.redoSteps)) {
+            long stepCount = ItemCodec.readVarLong(in);
+            for (long i = 0; i < stepCount; i++) {
+                steps.addLast(readStep(in, slotCount));
+                if (steps.size() > depth) {
+                    steps.pollFirst();
+                }
+            }
+        }
+        return history;
+    }
+
+    private static Step readStep(ByteBuffer in, int slotCount) throws IOException {
+        Step step = new Step();
+        long operationCount = ItemCodec.readVarLong(in);
+        for (long i = 0; i < operationCount; i++) {
+            byte operation = in.get();
+            long idCount = ItemCodec.readVarLong(in);
+            if (operation < ADDED || operation > UNMARKED || idCount <= 0 || idCount > slotCount) {
+                throw new StreamCorruptedException("Invalid undo history");
+            }
+            int[] ids = new int[(int) idCount];
+            long slot = 0;
+            for (int j = 0; j < ids.length; j++) {
+                slot += ItemCodec.readVarLong(in);
+                if (slot >= slotCount) {
+                    throw new StreamCorruptedException("Undo history refers to a missing item");
+                }
+                ids[j] = (int) slot;
+            }
+            step.add(operation, ids);
+        }
+        return step;
+    }
+
+    /**
+     * Operations applied by one command or batch, in the order they were applied.
+     */
+    static final class Step {
+        private byte[] operations = new byte[1];
+        private int[][] ids = new int[1][];
+        private int size;
+
+        private void add(byte operation, int[] changedIds) {
+            if (size == operations.length) {
+                operations = Arrays.copyOf(operations, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            operations[size] = operation;
+            ids[size] = changedIds;
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte getOperation(int index) {
+            return operations[index];
+        }
+
+        int[] getIds(int index) {
+            return ids[index];
+        }
+
+        private void forEachId(IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                for (int id : ids[i]) {
+                    action.accept(id);
+                }
+            }
+        }
+
+        /**
+         * Describes the step by how many items each kind of operation changed.
+         *
+         * @return Description such as "added 1 info and marked 2 tasks as done".
+         */
+        String describe() {
+            int[] counts = new int[UNMARKED + 1];
+            for (int i = 0; i < size; i++) {
+                counts[operations[i]] += ids[i].length;
+            }
+            StringBuilder result = new StringBuilder();
+            appendCount(result, "added ", counts[ADDED], " info", "");
+            appendCount(result, "deleted ", counts[DELETED], " info", "");
+            appendCount(result, "marked ", counts[MARKED], " task", " as done");
+            appendCount(result, "marked ", counts[UNMARKED], " task", " as not done");
+            return result.toString();
+        }
+
+        private static void appendCount(StringBuilder result, String verb, int count, String noun, String suffix) {
+            if (count == 0) {
+                return;
+            }
+            result.append(result.length() == 0 ? "" : " and ").append(verb).append(count).append(noun)
+                    .append(count == 1 ? "" : "s").append(suffix);
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package oscar.essential;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32C;
+
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+import oscar.item.Note;
+import oscar.item.Task;
+import oscar.item.TodoTask;
+
+/**
+ * Encodes and decodes items in Oscar's compact binary save format.
+ * A save file starts with a header of magic bytes, format version, journal sequence number and item count.
+ * Each item is a type tag byte, a flags byte, a varint length followed by the UTF-8 description,
+ * and the epoch seconds of its dates as zigzag varints. The file ends with a CRC32C of everything before it,
+ * so that a torn or corrupted save file is detected when it is loaded.
+ * A manifest has the same header and footer, with the number and item count of each segment file in between
+ * instead of items, followed by the undo history. Deleted items that the history can revive are kept in the
+ * segment files with a deleted flag.
+ */
+final class ItemCodec {
+    static final byte VERSION = 2;
+    static final byte MANIFEST_VERSION = 4;
+
+    private static final byte VERSION_WITHOUT_CHECKSUM = 1;
+    private static final byte MANIFEST_WITHOUT_HISTORY = 3;
+    private static final int CHECKSUM_LENGTH = 4;
+
+    private static final byte[] MAGIC = {'O', 'S', 'C', 'R'};
+    private static final byte DONE = 1;
+    private static final byte DELETED = 2;
+
+    private ItemCodec() {
+    }
+
+    /**
+     * Checks if the buffer starts with the binary save format rather than a legacy serialized stream.
+     *
+     * @param in Buffer positioned at the start of a save file.
+     * @return True if the magic bytes are present.
+     */
+    static boolean hasHeader(ByteBuffer in) {
+        if (in.remaining() < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.get(in.position() + i) != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the buffer starts with the header of a manifest rather than a save file holding items.
+     *
+     * @param in Buffer positioned at the start of a save file.
+     * @return True if the header is of the manifest version.
+     */
+    static boolean isManifest(ByteBuffer in) {
+        return hasHeader(in) && in.remaining() > MAGIC.length
+                && (in.get(in.position() + MAGIC.length) == MANIFEST_VERSION
+                        || in.get(in.position() + MAGIC.length) == MANIFEST_WITHOUT_HISTORY);
+    }
+
+    /**
+     * Checks if the buffer starts with the header of a manifest that is followed by the undo history.
+     *
+     * @param in Buffer positioned at the start of a save file.
+     * @return True if the header is of the current manifest version.
+     */
+    static boolean hasHistory(ByteBuffer in) {
+        return hasHeader(in) && in.remaining() > MAGIC.length
+                && in.get(in.position() + MAGIC.length) == MANIFEST_VERSION;
+    }
+
+    /**
+     * Writes the save file header.
+     *
+     * @param out Destination of header.
+     * @param sequence Sequence number of the last journal record in the save file.
+     * @param count Number of items that follow.
+     */
+    static void writeHeader(Output out, long sequence, int count) {
+        writeHeader(out, VERSION, sequence, count);
+    }
+
+    /**
+     * Writes the header of a save file or manifest.
+     *
+     * @param out Destination of header.
+     * @param version Format version.
+     * @param sequence Sequence number of the last journal record in the save file.
+     * @param count Number of items or segments that follow.
+     */
+    static void writeHeader(Output out, byte version, long sequence, int count) {
+        out.write(MAGIC);
+        out.write(version);
+        out.writeVarLong(sequence);
+        out.writeVarLong(count);
+    }
+
+    /**
+     * Writes the checksum footer of everything written so far.
+     *
+     * @param out Save file written up to the last item.
+     */
+    static void writeFooter(Output out) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(out.bytes, 0, out.size);
+        int value = (int) checksum.getValue();
+        out.write((byte) (value >>> 24));
+        out.write((byte) (value >>> 16));
+        out.write((byte) (value >>> 8));
+        out.write((byte) value);
+    }
+
+    /**
+     * Reads the save file header and verifies the checksum footer, leaving the buffer at the first item with
+     * the footer excluded from its limit. Save files from before the footer was added are read as they are.
+     *
+     * @param in Buffer holding a whole save file, positioned at its start.
+     * @return Sequence number and item count, or segment count for a manifest.
+     * @throws IOException Header is missing, of an unknown version, or the checksum does not match.
+     */
+    static long[] readHeader(ByteBuffer in) throws IOException {
+        if (!hasHeader(in)) {
+            throw new StreamCorruptedException("Missing save file header");
+        }
+        int start = in.position();
+        in.position(start + MAGIC.length);
+        byte version = in.get();
+        if (version == VERSION || version == MANIFEST_VERSION || version == MANIFEST_WITHOUT_HISTORY) {
+            verifyChecksum(in, start);
+        } else if (version != VERSION_WITHOUT_CHECKSUM) {
+            throw new StreamCorruptedException("Unknown save file version " + version);
+        }
+        long sequence = readVarLong(in);
+        long count = readVarLong(in);
+        return new long[]{sequence, count};
+    }
+
+    private static void verifyChecksum(ByteBuffer in, int start) throws IOException {
+        int end = in.limit() - CHECKSUM_LENGTH;
+        if (end < in.position()) {
+            throw new StreamCorruptedException("Missing save file checksum");
+        }
+        ByteBuffer content = in.duplicate();
+        content.position(start).limit(end);
+        CRC32C checksum = new CRC32C();
+        checksum.update(content);
+        if ((int) checksum.getValue() != in.getInt(end)) {
+            throw new StreamCorruptedException("Save file checksum does not match");
+        }
+        in.limit(end);
+    }
+
+    /**
+     * Encodes an item.
+     *
+     * @param out Destination of encoded item.
+     * @param item Item to encode.
+     */
+    static void writeItem(Output out, Item item) {
+        writeItemStart(out, (byte) item.getType().charAt(0), item instanceof Task && ((Task) item).isDone(), false);
+        byte[] description = item.getDescription().getBytes(StandardCharsets.UTF_8);
+        out.writeVarLong(description.length);
+        out.write(description);
+        if (item instanceof DeadlineTask) {
+            writeDateTime(out, ((DeadlineTask) item).getDeadline());
+        } else if (item instanceof EventTask) {
+            writeDateTime(out, ((EventTask) item).getStart());
+            writeDateTime(out, ((EventTask) item).getEnd());
+        }
+    }
+
+    /**
+     * Decodes an item.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @return Decoded item.
+     * @throws IOException Item type is not recognised.
+     */
+    static Item readItem(ByteBuffer in) throws IOException {
+        return readItem(in, isDone(in));
+    }
+
+    /**
+     * Decodes an item, taking whether it is done from elsewhere rather than from its flags.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @param isDone True if the item is a task that is done.
+     * @return Decoded item.
+     * @throws IOException Item type is not recognised.
+     */
+    static Item readItem(ByteBuffer in, boolean isDone) throws IOException {
+        byte type = in.get();
+        in.get();
+        String description = readString(in);
+        long first = type == 'D' || type == 'E' ? readSeconds(in) : 0;
+        long second = type == 'E' ? readSeconds(in) : 0;
+        return createItem(type, isDone, description, first, second);
+    }
+
+    /**
+     * Creates an item from its fields as they are encoded.
+     *
+     * @param type Type tag of item.
+     * @param isDone True if the item is a task that is done.
+     * @param description Description of item.
+     * @param first Epoch seconds of the deadline of a deadline task or the start of an event.
+     * @param second Epoch seconds of the end of an event.
+     * @return Created item.
+     * @throws IOException Item type is not recognised.
+     */
+    static Item createItem(byte type, boolean isDone, String description, long first, long second)
+            throws IOException {
+        Task task;
+        switch (type) {
+        case 'N':
+            return new Note(description);
+        case 'T':
+            task = new TodoTask(description);
+            break;
+        case 'D':
+            task = new DeadlineTask(description, toDateTime(first));
+            break;
+        case 'E':
+            task = new EventTask(description, toDateTime(first), toDateTime(second));
+            break;
+        default:
+            throw new StreamCorruptedException("Unknown item type " + type);
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Writes the type tag and flags that start an encoded item.
+     *
+     * @param out Destination of encoded item.
+     * @param type Type tag of item.
+     * @param isDone True if the item is a task that is done.
+     * @param isDeleted True if the item is deleted but kept for the undo history.
+     */
+    static void writeItemStart(Output out, byte type, boolean isDone, boolean isDeleted) {
+        out.write(type);
+        out.write((byte) ((isDone ? DONE : 0) | (isDeleted ? DELETED : 0)));
+    }
+
+    /**
+     * Checks if an encoded item is a task that is done, without decoding it.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @return True if the done flag is set.
+     */
+    static boolean isDone(ByteBuffer in) {
+        return (in.get(in.position() + 1) & DONE) != 0;
+    }
+
+    /**
+     * Checks if an encoded item is deleted but kept for the undo history, without decoding it.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @return True if the deleted flag is set.
+     */
+    static boolean isDeleted(ByteBuffer in) {
+        return (in.get(in.position() + 1) & DELETED) != 0;
+    }
+
+    /**
+     * Decodes only the description of an item.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @return Description of item.
+     * @throws IOException Description length is invalid.
+     */
+    static String readDescription(ByteBuffer in) throws IOException {
+        in.position(in.position() + 2);
+        return readString(in);
+    }
+
+    /**
+     * Moves past an encoded item without decoding it.
+     *
+     * @param in Buffer positioned at an encoded item.
+     * @throws IOException Item type is not recognised.
+     */
+    static void skipItem(ByteBuffer in) throws IOException {
+        byte type = in.get();
+        in.get();
+        int length = (int) readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new StreamCorruptedException("Invalid description length " + length);
+        }
+        in.position(in.position() + length);
+        switch (type) {
+        case 'N':
+        case 'T':
+            break;
+        case 'D':
+            readVarLong(in);
+            break;
+        case 'E':
+            readVarLong(in);
+            readVarLong(in);
+            break;
+        default:
+            throw new StreamCorruptedException("Unknown item type " + type);
+        }
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = (int) readVarLong(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new StreamCorruptedException("Invalid description length " + length);
+        }
+        String result;
+        if (in.hasArray()) {
+            result = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            result = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+
+    private static void writeDateTime(Output out, LocalDateTime dateTime) {
+        writeSeconds(out, toSeconds(dateTime));
+    }
+
+    /**
+     * Encodes a date as epoch seconds.
+     *
+     * @param out Destination of encoded date.
+     * @param seconds Epoch seconds in UTC.
+     */
+    static void writeSeconds(Output out, long seconds) {
+        out.writeVarLong((seconds << 1) ^ (seconds >> 63));
+    }
+
+    private static long readSeconds(ByteBuffer in) {
+        long zigzag = readVarLong(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Converts a date to the epoch seconds it is encoded as, dropping any fraction of a second.
+     *
+     * @param dateTime Date to convert.
+     * @return Epoch seconds in UTC.
+     */
+    static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime toDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Encodes a set of item numbers as runs of consecutive numbers, so that a range takes a few bytes.
+     * Format: number of runs, then for each run the gap since the end of the previous run and its length.
+     *
+     * @param out Destination of encoded set.
+     * @param indexes Item numbers.
+     */
+    static void writeIndexes(Output out, BitSet indexes) {
+        int runs = 0;
+        for (int start = indexes.nextSetBit(0); start >= 0; start = indexes.nextSetBit(indexes.nextClearBit(start))) {
+            runs++;
+        }
+        out.writeVarLong(runs);
+        int end = 0;
+        for (int start = indexes.nextSetBit(0); start >= 0; start = indexes.nextSetBit(end)) {
+            out.writeVarLong(start - end);
+            end = indexes.nextClearBit(start);
+            out.writeVarLong(end - start);
+        }
+    }
+
+    /**
+     * Decodes a set of item numbers written by writeIndexes.
+     *
+     * @param in Buffer positioned at an encoded set.
+     * @return Item numbers.
+     * @throws IOException Encoded set is corrupted.
+     */
+    static BitSet readIndexes(ByteBuffer in) throws IOException {
+        long runs = readVarLong(in);
+        BitSet indexes = new BitSet();
+        long end = 0;
+        for (long i = 0; i < runs; i++) {
+            long start = end + readVarLong(in);
+            end = start + readVarLong(in);
+            if (end > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Item number is out of range");
+            }
+            indexes.set((int) start, (int) end);
+        }
+        return indexes;
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @param in Buffer positioned at a varint.
+     * @return Decoded value.
+     */
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = in.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0 && shift < 64);
+        return value;
+    }
+
+    /**
+     * Growable byte buffer that encoded items are written into before being written out in one go.
+     */
+    static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            this.bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        void write(byte value) {
+            ensureCapacity(1);
+            bytes[size++] = value;
+        }
+
+        void write(byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, bytes, size, values.length);
+            size += values.length;
+        }
+
+        void write(Output other) {
+            ensureCapacity(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        void write(ByteBuffer values, int offset, int length) {
+            ensureCapacity(length);
+            ByteBuffer source = values.duplicate();
+            source.position(offset);
+            source.get(bytes, size, length);
+            size += length;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
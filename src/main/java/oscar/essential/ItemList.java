@@ -2,8 +2,20 @@ package oscar.essential;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 import oscar.exception.OscarException;
 import oscar.item.Item;
@@ -11,15 +23,82 @@ import oscar.item.Task;
 
 /**
  * Contains ArrayList of infos that Oscar can interact with.
+ * Every item has a stable ID for the session. Deleted items are left as tombstones and dropped in one pass
+ * once they make up half of the slots, while a Fenwick tree over live slots maps between item numbers and
+ * slots in O(log n). Each change also marks the segment of the save file that holds the item, so that the next
+ * snapshot rewrites only the segments that changed.
+ * Changes are recorded in a {@link History} of the IDs they touched, so that they can be undone and redone.
+ * Tombstones that the history refers to are kept through compaction and saved, so that deleted items can be
+ * revived even after a restart.
+ * Queries that visit many items stop with a CancellationException when the thread running them is interrupted.
+ * The list is safe to share between threads. Queries share a read lock and run in parallel, while changes take
+ * the write lock one at a time. Indexes are built lazily by the first query that needs them, and published
+ * through volatile fields only once built, so that later queries read them without taking another lock.
+ * Writers change the indexes in place, which is safe because the write lock keeps every query out.
  */
 public class ItemList {
-    private ArrayList<Item> itemList;
+    private static final int CANCEL_CHECK_MASK = 0x3FF; // items visited between checks for an interrupt
+    private static final int PARALLEL_SCAN_THRESHOLD = 1 << 16; // slots before a scan is split across threads
+    private static final int SCAN_CHUNK_SIZE = 1 << 13; // slots checked by each part of a parallel scan
+
+    static final int UNDO_DEPTH = Math.max(Integer.getInteger("oscar.undo", 100), 0); // changes that can be undone
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object indexLock = new Object();
+
+    private MappedItems itemList;
+    private int[] ids;
+    private int nextId;
+    private BitSet deleted;
+    private FenwickTree live;
+    private int tombstones;
+    private volatile KeywordIndex keywordIndex; // only ever set to a fully built index, or dropped by a writer
+    private int staleIds;
+    private volatile TimeIndex timeIndex;
+    private int staleTimeIds;
+    private History history = new History(UNDO_DEPTH);
+    private int keptTombstones;
+    private int compactions;
+    private Segments segments;
 
     /**
      * Uses an empty info list.
      */
     public ItemList() {
-        this.itemList = new ArrayList<Item>();
+        this(new MappedItems(), new Segments());
+    }
+
+    /**
+     * Uses items decoded lazily from saved files.
+     *
+     * @param items Items in saved files.
+     * @param segments Segment files the items were read from.
+     */
+    ItemList(MappedItems items, Segments segments) {
+        this.itemList = items;
+        this.nextId = items.size();
+        this.segments = segments;
+    }
+
+    /**
+     * Uses items decoded lazily from saved files, along with the undo history saved with them.
+     *
+     * @param items Items in saved files, including deleted items kept for the history.
+     * @param segments Segment files the items were read from.
+     * @param deletedItems Slots of the deleted items.
+     * @param history Undo history, with items identified by their slots.
+     */
+    ItemList(MappedItems items, Segments segments, BitSet deletedItems, History history) {
+        this(items, segments);
+        this.history = history;
+        if (!deletedItems.isEmpty()) {
+            deleted = deletedItems;
+            live = new FenwickTree(items.size());
+            for (int slot = deleted.nextSetBit(0); slot >= 0; slot = deleted.nextSetBit(slot + 1)) {
+                live.add(slot, -1);
+            }
+            tombstones = deleted.cardinality();
+        }
     }
 
     /**
@@ -29,8 +108,12 @@ public class ItemList {
      * @throws OscarException Unable to load object input stream.
      */
     public ItemList(ObjectInputStream stream) throws OscarException {
+        this();
         assert stream != null;
-        this.itemList = load(stream);
+        for (Item item : load(stream)) {
+            add(item);
+        }
+        history = new History(UNDO_DEPTH); // the loaded items are not a change to undo
     }
 
     /**
@@ -46,8 +129,7 @@ public class ItemList {
         try {
             @SuppressWarnings("unchecked")
             ArrayList<Item> tempList = (ArrayList<Item>) stream.readObject();
-            itemList = tempList;
-            return itemList;
+            return tempList;
         } catch (IOException e) {
             throw new OscarException("Sorry! There is an error loading the saved info list.\n");
         } catch (ClassNotFoundException e) {
@@ -56,16 +138,127 @@ public class ItemList {
     }
 
     /**
-     * Saves the current info list by serializing it.
+     * Creates a shallow copy of the info list so that it can be saved as a snapshot while the original keeps
+     * changing. The copy is laid out in the segments of the snapshot, with the segments that have to be written
+     * marked as dirty, and changes from now on are tracked against those segments.
      *
-     * @param stream Object output stream of saved file.
-     * @throws OscarException Input or output error.
+     * @param fileNumbers Source of numbers for new segment files.
+     * @param maxListings Number of snapshots that may list the same segment file.
+     * @return Copy of info list sharing the same items.
      */
-    public void save(ObjectOutputStream stream) throws OscarException {
+    ItemList snapshot(LongSupplier fileNumbers, int maxListings) {
+        lock.writeLock().lock();
         try {
-            stream.writeObject(itemList);
-        } catch (IOException e) {
-            throw new OscarException("Sorry! There is an issue with your input or output.\n");
+            ItemList copy = new ItemList(itemList.copy(), segments.plan(this::idsBetween, fileNumbers, maxListings));
+            copy.ids = ids == null ? null : Arrays.copyOf(ids, itemList.size());
+            copy.nextId = nextId;
+            copy.deleted = deleted == null ? null : (BitSet) deleted.clone();
+            copy.live = live == null ? null : live.copy();
+            copy.tombstones = tombstones;
+            copy.history = history.copy();
+            return copy;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Segments getSegments() {
+        return segments;
+    }
+
+    private int[] idsBetween(int fromId, int toId) {
+        int from = firstSlotFrom(fromId);
+        int to = firstSlotFrom(toId);
+        int[] found = new int[to - from];
+        for (int slot = from; slot < to; slot++) {
+            found[slot - from] = idOf(slot);
+        }
+        return found;
+    }
+
+    private int firstSlotFrom(int id) {
+        if (ids == null) {
+            return Math.min(Math.max(id, 0), itemList.size());
+        }
+        int slot = Arrays.binarySearch(ids, 0, itemList.size(), id);
+        return slot >= 0 ? slot : -slot - 1;
+    }
+
+    /**
+     * Encodes every item in the info list in a range of IDs for saving. Deleted items that have not been
+     * dropped yet are written with a deleted flag, so that every slot is saved and the undo history can refer
+     * to items by their slots.
+     *
+     * @param out Destination of encoded items.
+     * @param fromId First ID in range.
+     * @param toId ID after the last one in range.
+     */
+    void writeItems(ItemCodec.Output out, int fromId, int toId) {
+        lock.readLock().lock();
+        try {
+            for (int slot = firstSlotFrom(fromId); slot < itemList.size() && idOf(slot) < toId; slot++) {
+                itemList.writeItem(out, slot, isDeleted(slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Encodes the undo history for saving, with items identified by their slots.
+     *
+     * @param out Destination of encoded history.
+     */
+    void writeHistory(ItemCodec.Output out) {
+        lock.readLock().lock();
+        try {
+            history.write(out, this::slotOfId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtains an item in the info list.
+     *
+     * @param index Index of item.
+     * @return Item at the index.
+     */
+    Item get(int index) {
+        lock.readLock().lock();
+        try {
+            return itemList.get(slotOf(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtains the stable ID of an item, which does not change when items before it are deleted.
+     *
+     * @param index Index of item.
+     * @return ID of item.
+     */
+    public int getId(int index) {
+        lock.readLock().lock();
+        try {
+            return idOf(slotOf(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtains the number of slots, counting deleted items that compaction has not dropped yet.
+     *
+     * @return Count of slots.
+     */
+    int getSlotCount() {
+        lock.readLock().lock();
+        try {
+            return itemList.size();
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -75,7 +268,16 @@ public class ItemList {
      * @return Count of items.
      */
     public int getSize() {
-        return itemList.size();
+        lock.readLock().lock();
+        try {
+            return size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int size() {
+        return itemList.size() - tombstones;
     }
 
     /**
@@ -84,12 +286,70 @@ public class ItemList {
      * @return Items in info list.
      */
     public String list() {
-        StringBuilder result = new StringBuilder("Here are the items in your list:\n");
-        for (int i = 1; i <= getSize(); i++) {
-            Item currentItem = itemList.get(i - 1);
-            result.append(i).append(". ").append(currentItem).append("\n");
+        lock.readLock().lock();
+        try {
+            StringBuilder result = new StringBuilder("Here are the items in your list:\n");
+            int i = 1;
+            for (int slot = 0; slot < itemList.size(); slot++) {
+                checkForCancel(slot);
+                if (!isDeleted(slot)) {
+                    Item currentItem = itemList.get(slot);
+                    result.append(i++).append(". ").append(currentItem).append("\n");
+                }
+            }
+            return result.append("\n").toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists one page of stored items, visiting only the items on that page.
+     *
+     * @param page Page number, starting from 1.
+     * @param size Number of items on each page.
+     * @return Items on the page.
+     * @throws OscarException Page is past the end of the info list.
+     */
+    public String list(int page, int size) throws OscarException {
+        lock.readLock().lock();
+        try {
+            assert page > 0 && size > 0;
+            int pages = Math.max((size() + size - 1) / size, 1);
+            if (page > pages) {
+                throw new OscarException("Sorry! There "
+                        + (pages == 1 ? "is only 1 page" : "are only " + pages + " pages") + " in the list.\n");
+            }
+            StringBuilder result = new StringBuilder("Here are the items in your list (page " + page + " of " + pages
+                    + "):\n");
+            Cursor cursor = cursor((page - 1) * size);
+            for (int i = 0; i < size && cursor.hasNext(); i++) {
+                int number = cursor.nextIndex() + 1;
+                result.append(number).append(". ").append(cursor.next()).append("\n");
+            }
+            return result.append("\n").toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Creates a cursor over the items from an index onwards, in order of addition.
+     * The cursor stays valid while items are added, deleted or marked, until deleted items are compacted.
+     *
+     * @param index Index of the first item visited.
+     * @return Cursor before the item at the index.
+     */
+    public Cursor cursor(int index) {
+        lock.readLock().lock();
+        try {
+            if (index == size()) {
+                return new Cursor(itemList.size(), index);
+            }
+            return new Cursor(slotOf(index), index);
+        } finally {
+            lock.readLock().unlock();
         }
-        return result.append("\n").toString();
     }
 
     /**
@@ -98,13 +358,18 @@ public class ItemList {
      * @return Message that informs users of number of items in info list.
      */
     public String listCount() {
-        int listSize = getSize();
-        if (listSize == 0) {
-            return "You now have no items in the list. Add some now!\n";
-        } else if (listSize == 1) {
-            return "You now have 1 item in the list.\n";
-        } else {
-            return "You now have " + listSize + " items in the list.\n";
+        lock.readLock().lock();
+        try {
+            int listSize = size();
+            if (listSize == 0) {
+                return "You now have no items in the list. Add some now!\n";
+            } else if (listSize == 1) {
+                return "You now have 1 item in the list.\n";
+            } else {
+                return "You now have " + listSize + " items in the list.\n";
+            }
+        } finally {
+            lock.readLock().unlock();
         }
     }
 
@@ -116,16 +381,23 @@ public class ItemList {
      * @throws OscarException Item selected is a note or task is already marked as done.
      */
     public String mark(int index) throws OscarException {
-        Item currentItem = itemList.get(index);
-        if (!(currentItem instanceof Task)) {
-            throw new OscarException("Sorry! The item cannot be marked as done.\n");
-        }
-        Task currentTask = ((Task) currentItem);
-        if (currentTask.isDone()) {
-            throw new OscarException("Sorry! The task is already marked as done.\n");
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(index);
+            Item currentItem = itemList.get(slot);
+            if (!(currentItem instanceof Task)) {
+                throw new OscarException("Sorry! The item cannot be marked as done.\n");
+            }
+            Task currentTask = ((Task) currentItem);
+            if (currentTask.isDone()) {
+                throw new OscarException("Sorry! The task is already marked as done.\n");
+            }
+            setDone(slot, true);
+            history.record(History.MARKED, idOf(slot));
+            return itemList.get(slot).toString(); // items are read afresh from the list, so read it again
+        } finally {
+            lock.writeLock().unlock();
         }
-        currentTask.markAsDone();
-        return currentTask.toString();
     }
 
     /**
@@ -136,27 +408,177 @@ public class ItemList {
      * @throws OscarException Item selected is a note or task is not marked as done previously.
      */
     public String unmark(int index) throws OscarException {
-        Item currentItem = itemList.get(index);
-        if (!(currentItem instanceof Task)) {
-            throw new OscarException("Sorry! The item cannot be marked as not done.\n");
-        }
-        Task currentTask = ((Task) currentItem);
-        if (!currentTask.isDone()) {
-            throw new OscarException("Sorry! The task cannot be marked as not done.\n");
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(index);
+            Item currentItem = itemList.get(slot);
+            if (!(currentItem instanceof Task)) {
+                throw new OscarException("Sorry! The item cannot be marked as not done.\n");
+            }
+            Task currentTask = ((Task) currentItem);
+            if (!currentTask.isDone()) {
+                throw new OscarException("Sorry! The task cannot be marked as not done.\n");
+            }
+            setDone(slot, false);
+            history.record(History.UNMARKED, idOf(slot));
+            return itemList.get(slot).toString(); // items are read afresh from the list, so read it again
+        } finally {
+            lock.writeLock().unlock();
         }
-        currentTask.markAsNotDone();
-        return currentTask.toString();
     }
 
     /**
-     * Deletes an item.
+     * Deletes an item by leaving a tombstone in its slot.
      *
      * @param index Item number.
      * @return Description of item.
      */
     public String delete(int index) {
-        Item currentItem = itemList.remove(index);
-        return currentItem.toString();
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(index);
+            Item currentItem = itemList.get(slot);
+            tombstone(slot);
+            history.record(History.DELETED, idOf(slot));
+            if (!history.isRecording()) {
+                compactIfSparse();
+            }
+            return currentItem.toString();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every selected item. Outside a batch the items are dropped from the list in a single pass,
+     * however many are selected.
+     *
+     * @param indexes Item numbers to delete, all less than the size of the list.
+     */
+    public void deleteAll(BitSet indexes) {
+        lock.writeLock().lock();
+        try {
+            deleteSlots(slotsOf(indexes));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes every item accepted by a filter, checking each item once.
+     *
+     * @param filter Filter that accepts the items to delete.
+     * @return Item numbers of the deleted items, counted before the deletion.
+     */
+    public BitSet deleteIf(Predicate<Item> filter) {
+        lock.writeLock().lock();
+        try {
+            BitSet indexes = new BitSet();
+            int[] slots = new int[16];
+            int count = 0;
+            int position = 0;
+            for (int slot = 0; slot < itemList.size(); slot++) {
+                if (isDeleted(slot)) {
+                    continue;
+                }
+                if (filter.test(itemList.get(slot))) {
+                    if (count == slots.length) {
+                        slots = Arrays.copyOf(slots, count * 2);
+                    }
+                    slots[count++] = slot;
+                    indexes.set(position);
+                }
+                position++;
+            }
+            deleteSlots(Arrays.copyOf(slots, count));
+            return indexes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteSlots(int[] slots) {
+        if (slots.length == 0) {
+            return;
+        }
+        int[] deletedIds = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            deletedIds[i] = idOf(slots[i]);
+        }
+        history.record(History.DELETED, deletedIds);
+        if (history.isRecording()) {
+            for (int slot : slots) {
+                tombstone(slot);
+            }
+            return;
+        }
+        if (deleted == null) {
+            deleted = new BitSet(itemList.size());
+        }
+        for (int slot : slots) {
+            deleted.set(slot);
+            segments.touch(idOf(slot));
+        }
+        tombstones += slots.length;
+        addStaleIds(slots.length);
+        compact();
+    }
+
+    /**
+     * Marks every selected task as done or not done. Notes and tasks already in that state are left alone.
+     *
+     * @param indexes Item numbers of tasks to mark, all less than the size of the list.
+     * @param isDone True to mark the tasks as done.
+     * @return Item numbers of the tasks that were changed.
+     */
+    public BitSet markAll(BitSet indexes, boolean isDone) {
+        lock.writeLock().lock();
+        try {
+            BitSet changed = new BitSet();
+            int[] slots = slotsOf(indexes);
+            int[] changedIds = new int[slots.length];
+            int count = 0;
+            int index = indexes.nextSetBit(0);
+            for (int slot : slots) {
+                if (itemList.getType(slot) != 'N' && itemList.isDone(slot) != isDone) {
+                    setDone(slot, isDone);
+                    changed.set(index);
+                    changedIds[count++] = idOf(slot);
+                }
+                index = indexes.nextSetBit(index + 1);
+            }
+            history.record(isDone ? History.MARKED : History.UNMARKED, Arrays.copyOf(changedIds, count));
+            return changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the slots of the selected items in one pass over the list, or directly if nothing is deleted.
+     *
+     * @param indexes Item numbers, all less than the size of the list.
+     * @return Slots in ascending order.
+     */
+    private int[] slotsOf(BitSet indexes) {
+        if (indexes.length() > size()) {
+            throw new IndexOutOfBoundsException("Index: " + (indexes.length() - 1) + ", Size: " + size());
+        }
+        if (live == null) {
+            return indexes.stream().toArray();
+        }
+        int[] slots = new int[indexes.cardinality()];
+        int count = 0;
+        int position = 0;
+        for (int slot = 0; count < slots.length; slot++) {
+            if (!isDeleted(slot)) {
+                if (indexes.get(position)) {
+                    slots[count++] = slot;
+                }
+                position++;
+            }
+        }
+        return slots;
     }
 
     /**
@@ -165,23 +587,696 @@ public class ItemList {
      * @param item Item to be added.
      */
     public void add(Item item) {
-        itemList.add(item);
+        lock.writeLock().lock();
+        try {
+            int slot = itemList.size();
+            itemList.add(item);
+            if (ids != null) {
+                if (slot == ids.length) {
+                    ids = Arrays.copyOf(ids, slot * 2 + 1);
+                }
+                ids[slot] = nextId;
+            }
+            if (live != null) {
+                live.append();
+            }
+            if (keywordIndex != null) {
+                keywordIndex.add(nextId, item.getDescription());
+            }
+            if (timeIndex != null) {
+                timeIndex.add(nextId, item);
+            }
+            segments.touch(nextId);
+            history.record(History.ADDED, nextId);
+            nextId++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs an operation while holding the write lock, so that other threads see none of its changes until it
+     * has finished. Changes to the list and the journal records written for them stay in the same order.
+     *
+     * @param operation Operation to run.
+     * @param <T> Type of result.
+     * @return Result of operation.
+     * @throws OscarException Operation failed.
+     */
+    public <T> T runExclusively(Operation<T> operation) throws OscarException {
+        lock.writeLock().lock();
+        try {
+            return operation.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording how to undo each change, so that a batch of commands can be applied atomically and
+     * undone as a single change.
+     */
+    public void begin() {
+        lock.writeLock().lock();
+        try {
+            history.begin();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps every change made since the batch began.
+     */
+    public void commit() {
+        lock.writeLock().lock();
+        try {
+            history.commit();
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Undoes every change made since the batch began, latest first.
+     */
+    public void rollback() {
+        lock.writeLock().lock();
+        try {
+            History.Step step = history.rollback();
+            if (step != null) {
+                apply(step, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Undoes the latest change that has not been undone, which may then be redone.
+     *
+     * @return Description of the change undone.
+     * @throws OscarException There is no change to undo, or a batch is running.
+     */
+    public String undo() throws OscarException {
+        lock.writeLock().lock();
+        try {
+            if (history.isRecording()) {
+                throw new OscarException("Sorry! Changes cannot be undone in the middle of a batch.\n");
+            }
+            History.Step step = history.undo();
+            if (step == null) {
+                throw new OscarException("Sorry! There are no changes to undo.\n");
+            }
+            apply(step, true);
+            return step.describe();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the latest change that was undone again.
+     *
+     * @return Description of the change redone.
+     * @throws OscarException There is no change to redo, or a batch is running.
+     */
+    public String redo() throws OscarException {
+        lock.writeLock().lock();
+        try {
+            if (history.isRecording()) {
+                throw new OscarException("Sorry! Changes cannot be redone in the middle of a batch.\n");
+            }
+            History.Step step = history.redo();
+            if (step == null) {
+                throw new OscarException("Sorry! There are no changes to redo.\n");
+            }
+            apply(step, false);
+            return step.describe();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies every operation of a step, or undoes them latest first. Deleted items are revived in their slots.
+     *
+     * @param step Operations to apply.
+     * @param isUndo True to undo the operations.
+     */
+    private void apply(History.Step step, boolean isUndo) {
+        boolean hasRevived = false;
+        for (int i = 0; i < step.size(); i++) {
+            int operation = isUndo ? step.size() - 1 - i : i;
+            byte kind = step.getOperation(operation);
+            for (int id : step.getIds(operation)) {
+                int slot = slotOfId(id);
+                if (kind == History.MARKED || kind == History.UNMARKED) {
+                    setDone(slot, (kind == History.MARKED) != isUndo);
+                } else if ((kind == History.DELETED) == isUndo) {
+                    revive(slot);
+                    hasRevived = true;
+                } else {
+                    tombstone(slot);
+                }
+            }
+        }
+        if (hasRevived) {
+            keywordIndex = null; // revived items may have been left out when it was last built
+            timeIndex = null;
+        }
+        compactIfSparse();
     }
 
     /**
      * Lists all items in the info list containing the keyword.
+     * Keywords of at least three characters are looked up in the trigram index, which is built on first use.
      *
      * @param keyword String to match.
      * @return List of items containing keyword.
      */
     public String find(String keyword) {
+        return find(Query.of(keyword));
+    }
+
+    /**
+     * Lists all items in the info list matched by a query.
+     * Queries that cannot use the trigram index check every item, split across threads on a large list.
+     *
+     * @param query Terms to match.
+     * @return List of matching items.
+     */
+    public String find(Query query) {
+        lock.readLock().lock();
+        try {
+            Page page = new Page("Here are the matching infos in your list:\n", 0, Integer.MAX_VALUE);
+            find(query, page);
+            return page.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists one page of the items containing the keyword. Only matches up to the end of the page are visited,
+     * and only those on the page are displayed.
+     *
+     * @param keyword String to match.
+     * @param page Page number, starting from 1.
+     * @param size Number of matches on each page.
+     * @return Matches on the page.
+     */
+    public String find(String keyword, int page, int size) {
+        return find(Query.of(keyword), page, size);
+    }
+
+    /**
+     * Lists one page of the items matched by a query.
+     *
+     * @param query Terms to match.
+     * @param page Page number, starting from 1.
+     * @param size Number of matches on each page.
+     * @return Matches on the page.
+     */
+    public String find(Query query, int page, int size) {
+        lock.readLock().lock();
+        try {
+            assert page > 0 && size > 0;
+            Page result = new Page("Here are the matching infos in your list (page " + page + "):\n",
+                    (long) (page - 1) * size, size);
+            find(query, result);
+            if (result.hasMore()) {
+                result.append("There are more matching infos on page " + (page + 1) + ".\n");
+            }
+            return result.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void find(Query query, Page page) {
+        String keyword = query.getIndexedKeyword();
+        if (keyword == null || keyword.length() < KeywordIndex.GRAM_LENGTH) {
+            findByScan(query, page);
+            return;
+        }
+        KeywordIndex.Postings candidates = getKeywordIndex().candidates(keyword);
+        if (candidates.size() > size() / 4) {
+            findByScan(query, page); // checking every item in order is cheaper than looking up each candidate
+            return;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            checkForCancel(i);
+            int slot = slotOfId(candidates.get(i));
+            if (slot < 0 || isDeleted(slot)) {
+                continue;
+            }
+            if (query.matches(itemList.getDescription(slot)) && !page.add(positionOf(slot) + 1, itemList.get(slot))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lists all items in the info list containing the keyword by checking every item.
+     *
+     * @param keyword String to match.
+     * @return List of items containing keyword.
+     */
+    String findByScan(String keyword) {
+        lock.readLock().lock();
+        try {
+            Page page = new Page("Here are the matching infos in your list:\n", 0, Integer.MAX_VALUE);
+            findByScan(Query.of(keyword), page);
+            return page.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks every item against a query. A large list is split into parts that are checked in parallel in the
+     * fork/join pool running the query, or the common pool, and the matches are then listed in order.
+     *
+     * @param query Terms to match.
+     * @param page Page of matches to list.
+     */
+    private void findByScan(Query query, Page page) {
+        int parallelism = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+        if (itemList.size() >= PARALLEL_SCAN_THRESHOLD && parallelism > 1) {
+            int[] slots = new ScanTask(query, 0, itemList.size(), Thread.currentThread()).invoke();
+            for (int i = 0; i < slots.length; i++) {
+                checkForCancel(i);
+                if (!page.add(positionOf(slots[i]) + 1, itemList.get(slots[i]))) {
+                    return;
+                }
+            }
+            return;
+        }
+        int i = 0;
+        for (int slot = 0; slot < itemList.size(); slot++) {
+            checkForCancel(slot);
+            if (isDeleted(slot)) {
+                continue;
+            }
+            i++;
+            if (query.matches(itemList.getDescription(slot)) && !page.add(i, itemList.get(slot))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lists all deadlines that are due before a time, earliest first.
+     * Dates are looked up in the time index, which is built on first use.
+     *
+     * @param before Time to compare against.
+     * @return List of deadlines due before the time.
+     */
+    public String findDueBefore(LocalDateTime before) {
+        lock.readLock().lock();
+        try {
+            return listIds(getTimeIndex().dueBefore(before));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists all deadlines due within a period and events that overlap it, earliest first.
+     *
+     * @param from Start of period.
+     * @param to End of period.
+     * @return List of items within the period.
+     */
+    public String findOverlapping(LocalDateTime from, LocalDateTime to) {
+        lock.readLock().lock();
+        try {
+            return listIds(getTimeIndex().overlapping(from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String listIds(int[] matches) {
         StringBuilder result = new StringBuilder("Here are the matching infos in your list:\n");
-        for (int i = 1; i <= itemList.size(); i++) {
-            Item currentItem = itemList.get(i - 1);
-            if (currentItem.getDescription().contains(keyword)) {
-                result.append(i).append(". ").append(currentItem).append("\n");
+        for (int i = 0; i < matches.length; i++) {
+            checkForCancel(i);
+            int slot = slotOfId(matches[i]);
+            if (slot >= 0 && !isDeleted(slot)) {
+                result.append(positionOf(slot) + 1).append(". ").append(itemList.get(slot)).append("\n");
             }
         }
         return result.append("\n").toString();
     }
+
+    /**
+     * Obtains the time index, building it first if needed. Readers holding the read lock may get here together,
+     * so only one of them builds it, and the others see it only once it is complete.
+     *
+     * @return Time index of every item.
+     */
+    private TimeIndex getTimeIndex() {
+        TimeIndex index = timeIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (indexLock) {
+            if (timeIndex == null) {
+                index = new TimeIndex();
+                for (int slot = 0; slot < itemList.size(); slot++) {
+                    if (!isDeleted(slot)) {
+                        index.add(idOf(slot), itemList.get(slot));
+                    }
+                }
+                staleTimeIds = 0;
+                timeIndex = index;
+            }
+            return timeIndex;
+        }
+    }
+
+    /**
+     * Stops a long query if the thread running it has been interrupted, checking once every few items.
+     *
+     * @param count Number of items visited so far.
+     */
+    private static void checkForCancel(int count) {
+        checkForCancel(count, Thread.currentThread());
+    }
+
+    /**
+     * Stops a long query if the thread it was started from has been interrupted, checking once every few items.
+     *
+     * @param count Number of items visited so far.
+     * @param runner Thread the query was started from.
+     */
+    private static void checkForCancel(int count, Thread runner) {
+        if ((count & CANCEL_CHECK_MASK) == 0 && runner.isInterrupted()) {
+            throw new CancellationException("Query was cancelled");
+        }
+    }
+
+    /**
+     * Obtains the keyword index, building it first if needed. Readers holding the read lock may get here
+     * together, so only one of them builds it, and the others see it only once it is complete.
+     *
+     * @return Keyword index of every item.
+     */
+    private KeywordIndex getKeywordIndex() {
+        KeywordIndex index = keywordIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (indexLock) {
+            if (keywordIndex == null) {
+                index = new KeywordIndex();
+                for (int slot = 0; slot < itemList.size(); slot++) {
+                    if (!isDeleted(slot)) {
+                        index.add(idOf(slot), itemList.getDescription(slot));
+                    }
+                }
+                staleIds = 0;
+                keywordIndex = index;
+            }
+            return keywordIndex;
+        }
+    }
+
+    private void tombstone(int slot) {
+        if (live == null) {
+            live = new FenwickTree(itemList.size());
+            deleted = new BitSet(itemList.size());
+        }
+        deleted.set(slot);
+        live.add(slot, -1);
+        tombstones++;
+        addStaleIds(1);
+        segments.touch(idOf(slot));
+    }
+
+    private void addStaleIds(int count) {
+        staleIds += count;
+        if (keywordIndex != null && staleIds > size()) {
+            keywordIndex = null; // rebuilt without the deleted items on the next find
+        }
+        staleTimeIds += count;
+        if (timeIndex != null && staleTimeIds > size()) {
+            timeIndex = null;
+        }
+    }
+
+    private void revive(int slot) {
+        deleted.clear(slot);
+        live.add(slot, 1);
+        tombstones--;
+        segments.touch(idOf(slot));
+    }
+
+    private void setDone(int slot, boolean isDone) {
+        itemList.setDone(slot, isDone);
+        segments.touch(idOf(slot));
+    }
+
+    private void compactIfSparse() {
+        if ((tombstones - keptTombstones) * 2 > itemList.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Drops every tombstone that the undo history does not refer to in one pass. IDs are kept, so the keyword
+     * index stays valid. The segments of dropped items are rewritten by the next snapshot, so that every slot
+     * stays saved.
+     */
+    private void compact() {
+        int slots = itemList.size();
+        BitSet dropped = (BitSet) deleted.clone();
+        history.forEachId(id -> {
+            int slot = slotOfId(id);
+            if (slot >= 0) {
+                dropped.clear(slot);
+            }
+        });
+        if (ids == null) {
+            ids = new int[Math.max(slots, 16)];
+            Arrays.setAll(ids, slot -> slot);
+        }
+        BitSet kept = new BitSet();
+        int keptSlots = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (dropped.get(slot)) {
+                segments.touch(ids[slot]);
+                continue;
+            }
+            if (deleted.get(slot)) {
+                kept.set(keptSlots);
+            }
+            ids[keptSlots++] = ids[slot];
+        }
+        itemList.compact(dropped);
+        tombstones = kept.cardinality();
+        keptTombstones = tombstones;
+        deleted = tombstones == 0 ? null : kept;
+        live = tombstones == 0 ? null : new FenwickTree(keptSlots);
+        for (int slot = kept.nextSetBit(0); slot >= 0; slot = kept.nextSetBit(slot + 1)) {
+            live.add(slot, -1);
+        }
+        compactions++;
+    }
+
+    private boolean isDeleted(int slot) {
+        return deleted != null && deleted.get(slot);
+    }
+
+    private int slotOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return live == null ? index : live.find(index);
+    }
+
+    private int positionOf(int slot) {
+        return live == null ? slot : live.countBefore(slot);
+    }
+
+    private int idOf(int slot) {
+        return ids == null ? slot : ids[slot];
+    }
+
+    private int slotOfId(int id) {
+        if (ids == null) {
+            return id < itemList.size() ? id : -1;
+        }
+        return Arrays.binarySearch(ids, 0, itemList.size(), id);
+    }
+
+    /**
+     * Operation on the info list that may fail.
+     *
+     * @param <T> Type of result.
+     */
+    public interface Operation<T> {
+        T run() throws OscarException;
+    }
+
+    /**
+     * Iterator over items in order of addition that skips deleted items.
+     */
+    public class Cursor implements Iterator<Item> {
+        private int slot;
+        private int index;
+        private final int expectedCompactions = compactions;
+
+        private Cursor(int slot, int index) {
+            this.slot = slot;
+            this.index = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            lock.readLock().lock();
+            try {
+                checkForCompaction();
+                while (slot < itemList.size() && isDeleted(slot)) {
+                    slot++;
+                }
+                return slot < itemList.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public Item next() {
+            lock.readLock().lock();
+            try {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                index++;
+                return itemList.get(slot++);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Obtains the index of the item that the next call to next returns.
+         *
+         * @return Index of next item.
+         */
+        public int nextIndex() {
+            return index;
+        }
+
+        private void checkForCompaction() {
+            if (compactions != expectedCompactions) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Part of a parallel scan, which halves its range of slots until the range is small enough to check on one
+     * thread. Matching slots are returned in ascending order, so joining the halves keeps the order of the list.
+     */
+    private class ScanTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Query query;
+        private final int from;
+        private final int to;
+        private final Thread runner;
+
+        ScanTask(Query query, int from, int to, Thread runner) {
+            this.query = query;
+            this.from = from;
+            this.to = to;
+            this.runner = runner;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SCAN_CHUNK_SIZE) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask first = new ScanTask(query, from, middle, runner);
+            first.fork();
+            int[] second = new ScanTask(query, middle, to, runner).compute();
+            int[] matches = first.join();
+            if (second.length == 0) {
+                return matches;
+            }
+            int[] joined = Arrays.copyOf(matches, matches.length + second.length);
+            System.arraycopy(second, 0, joined, matches.length, second.length);
+            return joined;
+        }
+
+        private int[] scan() {
+            int[] matches = new int[16];
+            int count = 0;
+            for (int slot = from; slot < to; slot++) {
+                checkForCancel(slot, runner);
+                if (isDeleted(slot) || !query.matches(itemList.getDescription(slot))) {
+                    continue;
+                }
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = slot;
+            }
+            return Arrays.copyOf(matches, count);
+        }
+    }
+
+    /**
+     * Numbered items on one page of a listing, counting the matches before the page without displaying them.
+     */
+    private static class Page {
+        private final StringBuilder result;
+        private final long skip;
+        private final int size;
+        private long matches;
+
+        Page(String header, long skip, int size) {
+            this.result = new StringBuilder(header);
+            this.skip = skip;
+            this.size = size;
+        }
+
+        /**
+         * Counts a match and displays it if it is on the page.
+         *
+         * @param number Item number.
+         * @param item Matching item.
+         * @return False once a match after the page has been seen.
+         */
+        boolean add(int number, Item item) {
+            matches++;
+            if (matches > skip + size) {
+                return false;
+            }
+            if (matches > skip) {
+                result.append(number).append(". ").append(item).append("\n");
+            }
+            return true;
+        }
+
+        boolean hasMore() {
+            return matches > skip + size;
+        }
+
+        void append(String text) {
+            result.append(text);
+        }
+
+        @Override
+        public String toString() {
+            return result.toString() + "\n";
+        }
+    }
 }
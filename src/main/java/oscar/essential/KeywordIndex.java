@@ -0,0 +1,103 @@
+package oscar.essential;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Trigram index over item descriptions that narrows down which items can contain a keyword.
+ * Items are identified by ordinals that increase in the order the items were added, so every posting list
+ * is sorted. Ordinals of deleted items are left in place and skipped by the caller.
+ */
+class KeywordIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Indexes every trigram of a description.
+     *
+     * @param ordinal Ordinal of item, larger than any indexed before.
+     * @param description Description of item.
+     */
+    void add(int ordinal, String description) {
+        for (int i = 0; i + GRAM_LENGTH <= description.length(); i++) {
+            postings.computeIfAbsent(gram(description, i), key -> new Postings()).add(ordinal);
+        }
+    }
+
+    /**
+     * Intersects the posting lists of every trigram in a keyword, starting from the smallest.
+     * Every item containing the keyword is a candidate, but a candidate may still not contain the keyword.
+     *
+     * @param keyword Keyword of at least three characters.
+     * @return Candidate ordinals in ascending order.
+     */
+    Postings candidates(String keyword) {
+        assert keyword.length() >= GRAM_LENGTH;
+        Postings[] lists = new Postings[keyword.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gram(keyword, i));
+            if (lists[i] == null) {
+                return new Postings();
+            }
+        }
+        Arrays.sort(lists, (first, second) -> Integer.compare(first.size, second.size));
+        Postings result = new Postings();
+        result.ordinals = Arrays.copyOf(lists[0].ordinals, Math.max(lists[0].size, 1));
+        result.size = lists[0].size;
+        for (int i = 1; i < lists.length && result.size > 0; i++) {
+            result.retainAll(lists[i]);
+        }
+        return result;
+    }
+
+    private static long gram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /**
+     * Ascending list of ordinals of items containing a trigram.
+     */
+    static class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return; // trigram appears more than once in the description
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        /**
+         * Keeps only the ordinals that are also in the other list.
+         *
+         * @param other Posting list to intersect with.
+         */
+        private void retainAll(Postings other) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < size; i++) {
+                int found = Arrays.binarySearch(other.ordinals, from, other.size, ordinals[i]);
+                if (found >= 0) {
+                    ordinals[kept++] = ordinals[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            size = kept;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ordinals[index];
+        }
+    }
+}
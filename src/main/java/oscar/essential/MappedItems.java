@@ -0,0 +1,364 @@
+package oscar.essential;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+import oscar.item.Task;
+
+/**
+ * List of items held as columns of primitives rather than as objects, backed by memory-mapped save files.
+ * Each item has a type tag byte, a bit in the set of done tasks and a reference. An item in a mapped file is
+ * referenced by the index of its file in the high half and its offset in the low half. An item that is added
+ * or changed is referenced by the index of its dates in a pool of epoch seconds and the offset of its
+ * description in an arena, where repeated descriptions are stored once. Marking a task flips its bit.
+ * Items are created only when they are read, and are not kept, so changing a returned item does not change
+ * the list.
+ */
+class MappedItems extends AbstractList<Item> implements RandomAccess {
+    private static final byte IN_ARENA = (byte) 0x80; // tag bit of items that are not in a mapped file
+    private static final int MIN_ARENA_ENTRIES = 1024; // descriptions in an arena before it may be rebuilt
+
+    private final ByteBuffer[] buffers;
+    private DescriptionArena descriptions;
+    private long[] seconds;
+    private int secondCount;
+    private byte[] tags;
+    private long[] refs;
+    private final BitSet done;
+    private int size;
+
+    /**
+     * Creates an empty list that is held in memory.
+     */
+    MappedItems() {
+        this(new ByteBuffer[0], 0);
+    }
+
+    /**
+     * Creates a list of the items in mapped save files, each of which has to be indexed before it is read.
+     *
+     * @param buffers Mapped save files, each positioned at its first item by the time it is indexed.
+     * @param size Number of items in every save file.
+     */
+    MappedItems(ByteBuffer[] buffers, int size) {
+        this(buffers, new DescriptionArena(), new long[16], 0, new byte[Math.max(size, 16)],
+                new long[Math.max(size, 16)], new BitSet(size), size);
+    }
+
+    private MappedItems(ByteBuffer[] buffers, DescriptionArena descriptions, long[] seconds, int secondCount,
+            byte[] tags, long[] refs, BitSet done, int size) {
+        this.buffers = buffers;
+        this.descriptions = descriptions;
+        this.seconds = seconds;
+        this.secondCount = secondCount;
+        this.tags = tags;
+        this.refs = refs;
+        this.done = done;
+        this.size = size;
+    }
+
+    /**
+     * Indexes the encoded items in a mapped save file without decoding them.
+     *
+     * @param buffer Mapped save file positioned at the first item.
+     * @param count Number of items in the save file.
+     * @return List of the mapped items.
+     * @throws IOException Save file is truncated or corrupted.
+     */
+    static MappedItems map(ByteBuffer buffer, int count) throws IOException {
+        MappedItems items = new MappedItems(new ByteBuffer[]{buffer}, count);
+        BitSet doneItems = new BitSet();
+        items.index(0, 0, count, doneItems, new BitSet());
+        items.setDone(0, doneItems);
+        return items;
+    }
+
+    /**
+     * Records the type tag and offset of the encoded items in one mapped save file without decoding them.
+     * Files may be indexed in parallel, since each fills its own part of the columns, but the tasks found to be
+     * done are set afterwards by {@link #setDone(int, BitSet)}.
+     *
+     * @param file Index of save file among the buffers of the list.
+     * @param from Index of the first item of the save file in the list.
+     * @param count Number of items in the save file.
+     * @param doneItems Tasks that are done, numbered from the first item of the save file.
+     * @param deletedItems Items that are deleted but kept for the undo history, numbered the same way.
+     * @throws IOException Save file is truncated or corrupted.
+     */
+    void index(int file, int from, int count, BitSet doneItems, BitSet deletedItems) throws IOException {
+        ByteBuffer buffer = buffers[file].duplicate();
+        for (int i = 0; i < count; i++) {
+            int offset = buffer.position();
+            tags[from + i] = buffer.get(offset);
+            refs[from + i] = (long) file << 32 | offset;
+            if (ItemCodec.isDone(buffer)) {
+                doneItems.set(i);
+            }
+            if (ItemCodec.isDeleted(buffer)) {
+                deletedItems.set(i);
+            }
+            ItemCodec.skipItem(buffer);
+        }
+    }
+
+    /**
+     * Marks the tasks in one indexed save file that are done.
+     *
+     * @param from Index of the first item of the save file in the list.
+     * @param doneItems Tasks that are done, numbered from the first item of the save file.
+     */
+    void setDone(int from, BitSet doneItems) {
+        for (int i = doneItems.nextSetBit(0); i >= 0; i = doneItems.nextSetBit(i + 1)) {
+            done.set(from + i);
+        }
+    }
+
+    /**
+     * Creates a read-only copy that shares the mapped files, descriptions and dates but can be read while this
+     * list keeps changing.
+     *
+     * @return Copy of list.
+     */
+    MappedItems copy() {
+        return new MappedItems(buffers, descriptions.view(), seconds, secondCount, Arrays.copyOf(tags, size),
+                Arrays.copyOf(refs, size), (BitSet) done.clone(), size);
+    }
+
+    /**
+     * Encodes an item, copying its bytes straight from the mapped file or the arena.
+     *
+     * @param out Destination of encoded item.
+     * @param index Index of item.
+     * @param isDeleted True if the item is deleted but kept for the undo history.
+     */
+    void writeItem(ItemCodec.Output out, int index, boolean isDeleted) {
+        byte type = getType(index);
+        ItemCodec.writeItemStart(out, type, done.get(index), isDeleted);
+        if (!isInArena(index)) {
+            ByteBuffer in = mapped(index);
+            int offset = in.position();
+            try {
+                ItemCodec.skipItem(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            out.write(in, offset + 2, in.position() - offset - 2);
+            return;
+        }
+        long ref = refs[index];
+        descriptions.write(out, (int) ref);
+        int time = (int) (ref >>> 32);
+        if (type == 'D' || type == 'E') {
+            ItemCodec.writeSeconds(out, seconds[time]);
+        }
+        if (type == 'E') {
+            ItemCodec.writeSeconds(out, seconds[time + 1]);
+        }
+    }
+
+    /**
+     * Obtains the type tag of an item without creating it.
+     *
+     * @param index Index of item.
+     * @return Type tag, such as 'T' for a todo task.
+     */
+    byte getType(int index) {
+        checkIndex(index);
+        return (byte) (tags[index] & ~IN_ARENA);
+    }
+
+    /**
+     * Checks if an item is a task that is done, without creating it.
+     *
+     * @param index Index of item.
+     * @return True if the item is a task that is done.
+     */
+    boolean isDone(int index) {
+        checkIndex(index);
+        return done.get(index);
+    }
+
+    /**
+     * Marks a task as done or not done.
+     *
+     * @param index Index of task.
+     * @param isDone True to mark the task as done.
+     */
+    void setDone(int index, boolean isDone) {
+        checkIndex(index);
+        done.set(index, isDone);
+    }
+
+    /**
+     * Obtains the description of an item without creating the rest of it.
+     *
+     * @param index Index of item.
+     * @return Description of item.
+     */
+    String getDescription(int index) {
+        checkIndex(index);
+        if (isInArena(index)) {
+            return descriptions.get((int) refs[index]);
+        }
+        try {
+            return ItemCodec.readDescription(mapped(index));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isInArena(int index) {
+        return (tags[index] & IN_ARENA) != 0;
+    }
+
+    /**
+     * Obtains a view of the mapped file positioned at an item that has not changed.
+     *
+     * @param index Index of item.
+     * @return Buffer positioned at the encoded item.
+     */
+    private ByteBuffer mapped(int index) {
+        long offset = refs[index];
+        ByteBuffer in = buffers[(int) (offset >>> 32)].duplicate();
+        in.position((int) offset);
+        return in;
+    }
+
+    @Override
+    public Item get(int index) {
+        byte type = getType(index);
+        try {
+            if (!isInArena(index)) {
+                return ItemCodec.readItem(mapped(index), done.get(index));
+            }
+            long ref = refs[index];
+            int time = (int) (ref >>> 32);
+            return ItemCodec.createItem(type, done.get(index), descriptions.get((int) ref),
+                    type == 'D' || type == 'E' ? seconds[time] : 0, type == 'E' ? seconds[time + 1] : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Item set(int index, Item item) {
+        Item previous = get(index);
+        store(index, item);
+        return previous;
+    }
+
+    /**
+     * Appends an item. Items cannot be inserted anywhere else.
+     *
+     * @param index Index of item, which has to be the size of the list.
+     * @param item Item to append.
+     */
+    @Override
+    public void add(int index, Item item) {
+        if (index != size) {
+            throw new UnsupportedOperationException("Items can only be added at the end of the list");
+        }
+        if (size == tags.length) {
+            int capacity = size + (size >> 1) + 1;
+            tags = Arrays.copyOf(tags, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+        }
+        size++;
+        store(index, item);
+        modCount++;
+    }
+
+    private void store(int index, Item item) {
+        int time = secondCount;
+        if (item instanceof DeadlineTask) {
+            addSeconds(ItemCodec.toSeconds(((DeadlineTask) item).getDeadline()));
+        } else if (item instanceof EventTask) {
+            addSeconds(ItemCodec.toSeconds(((EventTask) item).getStart()));
+            addSeconds(ItemCodec.toSeconds(((EventTask) item).getEnd()));
+        }
+        tags[index] = (byte) (item.getType().charAt(0) | IN_ARENA);
+        refs[index] = (long) time << 32 | descriptions.add(item.getDescription());
+        done.set(index, item instanceof Task && ((Task) item).isDone());
+    }
+
+    private void addSeconds(long value) {
+        if (secondCount == seconds.length) {
+            seconds = Arrays.copyOf(seconds, secondCount * 2);
+        }
+        seconds[secondCount++] = value;
+    }
+
+    /**
+     * Drops the deleted items in a single pass, keeping the order of the rest. The descriptions and dates of
+     * items in memory are stored again once most of the arena is no longer referenced.
+     *
+     * @param deleted Indexes of deleted items.
+     */
+    void compact(BitSet deleted) {
+        int kept = 0;
+        int inArena = 0;
+        for (int i = 0; i < size; i++) {
+            if (!deleted.get(i)) {
+                tags[kept] = tags[i];
+                refs[kept] = refs[i];
+                done.set(kept, done.get(i));
+                if (isInArena(kept)) {
+                    inArena++;
+                }
+                kept++;
+            }
+        }
+        done.clear(kept, size);
+        size = kept;
+        modCount++;
+        if (descriptions.getEntries() > Math.max(inArena * 2, MIN_ARENA_ENTRIES)) {
+            rebuildArena();
+        }
+    }
+
+    /**
+     * Stores the descriptions and dates of items in memory again, leaving out those of dropped items.
+     * The old arena and pool are left as they are for any copy still reading them.
+     */
+    private void rebuildArena() {
+        DescriptionArena oldDescriptions = descriptions;
+        long[] oldSeconds = seconds;
+        descriptions = new DescriptionArena();
+        seconds = new long[16];
+        secondCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isInArena(i)) {
+                continue;
+            }
+            byte type = getType(i);
+            int oldTime = (int) (refs[i] >>> 32);
+            int time = secondCount;
+            if (type == 'D' || type == 'E') {
+                addSeconds(oldSeconds[oldTime]);
+            }
+            if (type == 'E') {
+                addSeconds(oldSeconds[oldTime + 1]);
+            }
+            refs[i] = (long) time << 32 | descriptions.add(oldDescriptions.get((int) refs[i]));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package oscar.essential;
 
+import java.util.Arrays;
+
+import oscar.command.BatchCommand;
 import oscar.command.Command;
 import oscar.command.DeadlineCommand;
 import oscar.command.DeleteCommand;
+import oscar.command.DueCommand;
 import oscar.command.EventCommand;
 import oscar.command.ExitCommand;
 import oscar.command.FindCommand;
 import oscar.command.ListCommand;
 import oscar.command.MarkCommand;
 import oscar.command.NoteCommand;
+import oscar.command.OverlappingCommand;
+import oscar.command.RedoCommand;
+import oscar.command.StatsCommand;
 import oscar.command.TodoCommand;
+import oscar.command.UndoCommand;
 import oscar.command.UnmarkCommand;
+import oscar.command.UpcomingCommand;
 import oscar.exception.OscarException;
 
 /**
  * Handles raw user input and invokes the corresponding command.
+ * The command word is looked up in a perfect hash table keyed on its length and first letter, so parsing
+ * does not split or copy the input. Only the details after the command word are copied, and short info
+ * numbers are shared rather than copied.
  */
 public class Parser {
+    private static final String[] KEYWORDS = {"bye", "list", "mark", "unmark", "delete", "todo", "deadline",
+        "event", "note", "find", "upcoming", "due", "overlapping", "batch", "stats", "undo", "redo"};
+    private static final int UNKNOWN = -1;
+    private static final int MAX_KEYWORD_LENGTH = 15;
+    private static final int[] SLOTS = new int[26 * (MAX_KEYWORD_LENGTH + 1)];
+    private static final String[] NUMBERS = new String[1024];
+
+    static {
+        Arrays.fill(SLOTS, UNKNOWN);
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            int slot = slotOf(KEYWORDS[i], KEYWORDS[i].length());
+            if (SLOTS[slot] != UNKNOWN) {
+                throw new IllegalStateException("Command words " + KEYWORDS[SLOTS[slot]] + " and " + KEYWORDS[i]
+                        + " share a slot");
+            }
+            SLOTS[slot] = i;
+        }
+        for (int i = 0; i < NUMBERS.length; i++) {
+            NUMBERS[i] = String.valueOf(i);
+        }
+    }
+
     /**
      * Handles raw user input and invokes callCommand to handle the command.
      *
@@ -25,10 +59,70 @@ public class Parser {
      * @throws OscarException Invalid command.
      */
     public static Command parse(String fullCommand) throws OscarException {
-        String[] splits = fullCommand.split(" ", 2);
-        String command = splits[0].toLowerCase();
-        String details = fullCommand.length() > command.length() ? splits[1] : "";
-        return callCommand(command, details);
+        int end = fullCommand.indexOf(' ');
+        if (end < 0) {
+            end = fullCommand.length();
+        }
+        return callCommand(keywordOf(fullCommand, end), detailsOf(fullCommand, end + 1));
+    }
+
+    /**
+     * Finds the slot of a command word in the hash table.
+     *
+     * @param input Text starting with the command word.
+     * @param length Length of the command word.
+     * @return Slot of the command word, or UNKNOWN if no command word can have it.
+     */
+    private static int slotOf(String input, int length) {
+        if (length == 0 || length > MAX_KEYWORD_LENGTH) {
+            return UNKNOWN;
+        }
+        int letter = Character.toLowerCase(input.charAt(0)) - 'a';
+        if (letter < 0 || letter >= 26) {
+            return UNKNOWN;
+        }
+        return letter * (MAX_KEYWORD_LENGTH + 1) + length;
+    }
+
+    /**
+     * Identifies the command word at the start of the input, ignoring case.
+     *
+     * @param input Raw user input.
+     * @param length Length of the command word.
+     * @return Command word in lower case, or an empty string if it is not a command word.
+     */
+    private static String keywordOf(String input, int length) {
+        int slot = slotOf(input, length);
+        if (slot == UNKNOWN || SLOTS[slot] == UNKNOWN) {
+            return "";
+        }
+        String keyword = KEYWORDS[SLOTS[slot]];
+        return input.regionMatches(true, 0, keyword, 0, length) ? keyword : "";
+    }
+
+    /**
+     * Obtains the details after the command word, sharing the string of a small info number.
+     *
+     * @param input Raw user input.
+     * @param start Index of the first character of the details.
+     * @return Details of command, or an empty string if there are none.
+     */
+    private static String detailsOf(String input, int start) {
+        int length = input.length() - start;
+        if (length <= 0) {
+            return "";
+        }
+        if (length <= 4 && input.charAt(start) != '0') {
+            int number = 0;
+            for (int i = start; i < input.length() && number >= 0; i++) {
+                char c = input.charAt(i);
+                number = c >= '0' && c <= '9' ? number * 10 + c - '0' : -1;
+            }
+            if (number >= 0 && number < NUMBERS.length) {
+                return NUMBERS[number];
+            }
+        }
+        return input.substring(start);
     }
 
     /**
@@ -45,7 +139,7 @@ public class Parser {
             return new ExitCommand();
 
         case "list":
-            return new ListCommand();
+            return new ListCommand(details);
 
         case "mark":
             return new MarkCommand(details);
@@ -71,6 +165,27 @@ public class Parser {
         case "find":
             return new FindCommand(details);
 
+        case "upcoming":
+            return new UpcomingCommand(details);
+
+        case "due":
+            return new DueCommand(details);
+
+        case "overlapping":
+            return new OverlappingCommand(details);
+
+        case "batch":
+            return new BatchCommand(details);
+
+        case "stats":
+            return new StatsCommand();
+
+        case "undo":
+            return new UndoCommand();
+
+        case "redo":
+            return new RedoCommand();
+
         default:
             throw new OscarException("Sorry! Oscar does not recognise this command\n");
         }
@@ -0,0 +1,225 @@
+package oscar.essential;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import oscar.exception.OscarException;
+
+/**
+ * Terms to find in item descriptions, optionally combined with AND and OR. AND binds more tightly than OR, so
+ * "a AND b OR c" finds items containing both a and b, as well as items containing c. Operators are only read
+ * when asked for, so that a keyword such as "rock AND roll" is otherwise found as it is.
+ * Terms are found as substrings by default, or as regular expressions, and may ignore case. A fuzzy term is
+ * found in any part of a description that is within a few edits of it: none for terms of up to two
+ * characters, one edit for terms of up to five characters and two edits for longer terms.
+ * A query is immutable, so one query can be matched from many threads at once.
+ */
+public final class Query {
+    static final int MAX_FUZZY_LENGTH = Long.SIZE; // characters in a fuzzy term, one bit of a long for each
+
+    private static final Pattern OR = Pattern.compile(" OR ", Pattern.LITERAL);
+    private static final Pattern AND = Pattern.compile(" AND ", Pattern.LITERAL);
+
+    private final Term[][] alternatives;
+    private final String indexedKeyword;
+
+    private Query(Term[][] alternatives, String indexedKeyword) {
+        this.alternatives = alternatives;
+        this.indexedKeyword = indexedKeyword;
+    }
+
+    /**
+     * Creates a query for a single keyword, found as a case-sensitive substring.
+     *
+     * @param keyword Keyword to find, taken as it is.
+     * @return Query for keyword.
+     */
+    public static Query of(String keyword) {
+        Term term = description -> description.contains(keyword);
+        return new Query(new Term[][]{{term}}, keyword);
+    }
+
+    /**
+     * Parses the terms of a find command.
+     * Format: term [AND term]... [OR term [AND term]...]... if operators are read, or else a single term.
+     *
+     * @param text Terms and the operators between them.
+     * @param hasOperators True if AND and OR are read as operators rather than as part of a term.
+     * @param isRegex True if terms are regular expressions.
+     * @param isIgnoreCase True if case is ignored.
+     * @param isFuzzy True if terms may be found with a few edits.
+     * @return Query for the terms.
+     * @throws OscarException A term is empty, is not a valid regular expression or is too long to be fuzzy.
+     */
+    public static Query parse(String text, boolean hasOperators, boolean isRegex, boolean isIgnoreCase,
+            boolean isFuzzy) throws OscarException {
+        if (isRegex && isFuzzy) {
+            throw new OscarException("Sorry! A find command cannot use both --regex and --fuzzy.\n");
+        }
+        if (!hasOperators) {
+            return isRegex || isIgnoreCase || isFuzzy
+                    ? new Query(new Term[][]{{parseTerm(text, isRegex, isIgnoreCase, isFuzzy)}}, null)
+                    : of(text);
+        }
+        String[] groups = OR.split(text, -1);
+        Term[][] alternatives = new Term[groups.length][];
+        for (int i = 0; i < groups.length; i++) {
+            String[] terms = AND.split(groups[i], -1);
+            alternatives[i] = new Term[terms.length];
+            for (int j = 0; j < terms.length; j++) {
+                alternatives[i][j] = parseTerm(terms[j], isRegex, isIgnoreCase, isFuzzy);
+            }
+        }
+        return new Query(alternatives, null);
+    }
+
+    private static Term parseTerm(String term, boolean isRegex, boolean isIgnoreCase, boolean isFuzzy)
+            throws OscarException {
+        if (term.isBlank()) {
+            throw new OscarException("Sorry! The terms of a find command cannot be blank.\n");
+        }
+        if (isRegex) {
+            try {
+                Pattern pattern = Pattern.compile(term,
+                        isIgnoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0);
+                return description -> pattern.matcher(description).find();
+            } catch (PatternSyntaxException e) {
+                throw new OscarException("Sorry! " + term + " is not a valid regular expression.\n");
+            }
+        }
+        if (isFuzzy) {
+            if (term.length() > MAX_FUZZY_LENGTH) {
+                throw new OscarException("Sorry! A fuzzy term cannot exceed " + MAX_FUZZY_LENGTH
+                        + " characters.\n");
+            }
+            return new FuzzyTerm(term, isIgnoreCase);
+        }
+        if (isIgnoreCase) {
+            return description -> containsIgnoreCase(description, term);
+        }
+        return description -> description.contains(term);
+    }
+
+    /**
+     * Checks if a description is matched by the query.
+     *
+     * @param description Description of item.
+     * @return True if every term of any group joined by OR is found.
+     */
+    public boolean matches(String description) {
+        for (Term[] terms : alternatives) {
+            boolean isMatch = true;
+            for (int i = 0; i < terms.length && isMatch; i++) {
+                isMatch = terms[i].matches(description);
+            }
+            if (isMatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtains the keyword that can be looked up in the keyword index, if the query is a single keyword found as
+     * a case-sensitive substring.
+     *
+     * @return Keyword, or null if every description has to be checked.
+     */
+    String getIndexedKeyword() {
+        return indexedKeyword;
+    }
+
+    private static boolean containsIgnoreCase(String description, String term) {
+        char first = term.charAt(0);
+        char upper = Character.toUpperCase(first);
+        char lower = Character.toLowerCase(first);
+        for (int i = 0; i + term.length() <= description.length(); i++) {
+            char c = description.charAt(i);
+            if ((c == upper || c == lower || c == first)
+                    && description.regionMatches(true, i, term, 0, term.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Term found in a description.
+     */
+    private interface Term {
+        boolean matches(String description);
+    }
+
+    /**
+     * Term found in any part of a description within a few edits of it, by Myers' bit-parallel algorithm.
+     * Each column of the edit distance table is held as bit vectors of the differences between adjacent cells,
+     * so checking a description takes a few operations on longs for each of its characters.
+     */
+    private static final class FuzzyTerm implements Term {
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+        private final long lastBit;
+        private final int length;
+        private final int maxEdits;
+
+        FuzzyTerm(String term, boolean isIgnoreCase) {
+            this.length = term.length();
+            this.lastBit = 1L << (length - 1);
+            this.maxEdits = length <= 2 ? 0 : length <= 5 ? 1 : 2;
+            for (int i = 0; i < length; i++) {
+                char c = term.charAt(i);
+                if (isIgnoreCase) {
+                    addMask(Character.toLowerCase(c), i);
+                    addMask(Character.toUpperCase(c), i);
+                } else {
+                    addMask(c, i);
+                }
+            }
+        }
+
+        private void addMask(char c, int position) {
+            if (c < asciiMasks.length) {
+                asciiMasks[c] |= 1L << position;
+            } else {
+                otherMasks.merge(c, 1L << position, (a, b) -> a | b);
+            }
+        }
+
+        private long maskOf(char c) {
+            if (c < asciiMasks.length) {
+                return asciiMasks[c];
+            }
+            Long mask = otherMasks.get(c);
+            return mask == null ? 0 : mask;
+        }
+
+        @Override
+        public boolean matches(String description) {
+            long positive = -1L;
+            long negative = 0;
+            int distance = length;
+            for (int i = 0; i < description.length(); i++) {
+                long equal = maskOf(description.charAt(i));
+                long vertical = equal | negative;
+                long horizontal = (((equal & positive) + positive) ^ positive) | equal;
+                long positiveHorizontal = negative | ~(horizontal | positive);
+                long negativeHorizontal = positive & horizontal;
+                if ((positiveHorizontal & lastBit) != 0) {
+                    distance++;
+                } else if ((negativeHorizontal & lastBit) != 0) {
+                    distance--;
+                }
+                positiveHorizontal <<= 1; // a match may start anywhere, so the top row stays zero
+                negativeHorizontal <<= 1;
+                positive = negativeHorizontal | ~(vertical | positiveHorizontal);
+                negative = positiveHorizontal & vertical;
+                if (distance <= maxEdits) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
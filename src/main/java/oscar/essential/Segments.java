@@ -0,0 +1,193 @@
+package oscar.essential;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.LongSupplier;
+
+/**
+ * Layout of a snapshot split into segment files, each holding the items in a range of stable IDs.
+ * Segment k holds the IDs from its start up to the start of segment k + 1, and the last segment holds every
+ * ID after its start, so that added items always fall in the last segment.
+ * A change to an item marks its segment as dirty. The next snapshot rewrites only dirty segments, repacked
+ * into new files, and keeps the files of every other segment as they are, unless so many snapshots already
+ * list a file that one damaged copy would break every snapshot kept. Such a segment is rewritten as well.
+ */
+final class Segments {
+    static final int SEGMENT_SIZE = 4096; // items in a full segment
+    static final long UNWRITTEN = -1;
+
+    private int[] starts;
+    private long[] files;
+    private int[] counts;
+    private int[] listings; // snapshots that list the file of each segment, up to and including the latest
+    private int count;
+    private final BitSet dirty = new BitSet();
+
+    /**
+     * Creates an empty layout.
+     */
+    Segments() {
+        this.starts = new int[4];
+        this.files = new long[4];
+        this.counts = new int[4];
+        this.listings = new int[4];
+    }
+
+    /**
+     * Creates the layout of items that are not in any segment file yet, such as items read from a save file
+     * in an older format. They are written in full by the next snapshot.
+     *
+     * @param itemCount Number of items, with IDs counting up from zero.
+     * @return Layout with one dirty segment, or none if there are no items.
+     */
+    static Segments unwritten(int itemCount) {
+        Segments segments = new Segments();
+        if (itemCount > 0) {
+            segments.append(0, UNWRITTEN, itemCount);
+            segments.dirty.set(0);
+        }
+        return segments;
+    }
+
+    /**
+     * Adds a segment after every other segment, listed by one snapshot so far.
+     *
+     * @param start First ID in segment.
+     * @param file Number of segment file.
+     * @param itemCount Number of items in segment.
+     */
+    void append(int start, long file, int itemCount) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            files = Arrays.copyOf(files, count * 2);
+            counts = Arrays.copyOf(counts, count * 2);
+            listings = Arrays.copyOf(listings, count * 2);
+        }
+        starts[count] = count == 0 ? 0 : start; // the first segment also holds any IDs before its first item
+        files[count] = file;
+        counts[count] = itemCount;
+        listings[count] = 1;
+        count++;
+    }
+
+    /**
+     * Marks the segment holding an ID as dirty.
+     *
+     * @param id ID of item that changed.
+     */
+    void touch(int id) {
+        if (count == 0) {
+            append(0, UNWRITTEN, 0);
+        }
+        int segment = Arrays.binarySearch(starts, 0, count, id);
+        dirty.set(segment >= 0 ? segment : Math.max(-segment - 2, 0));
+    }
+
+    /**
+     * Plans the next snapshot. Every run of dirty segments is repacked into segments of equal size, none of
+     * which is more than full. A run that would leave a segment less than half full takes in the clean segment
+     * after it, so that deletions do not leave many small segments behind.
+     * A clean segment whose file is already listed by as many snapshots as are kept besides the newest is
+     * repacked too, so that no file is shared by every kept snapshot and each damaged file leaves one of them
+     * intact. Every segment is thereby rewritten at least once in that many snapshots.
+     * Dirty marks are cleared, and the returned layout marks the segments that have to be written instead.
+     *
+     * @param heldIds Source of the IDs of items that are held, including deleted items kept for the undo history.
+     * @param fileNumbers Source of numbers for new segment files.
+     * @param maxListings Number of snapshots that may list the same file.
+     * @return Layout of the next snapshot.
+     */
+    Segments plan(HeldIds heldIds, LongSupplier fileNumbers, int maxListings) {
+        for (int segment = 0; segment < count; segment++) {
+            if (listings[segment] >= maxListings) {
+                dirty.set(segment);
+            }
+        }
+        Segments next = new Segments();
+        int segment = 0;
+        while (segment < count) {
+            if (!dirty.get(segment)) {
+                next.append(starts[segment], files[segment], counts[segment]);
+                next.listings[next.count - 1] = listings[segment] + 1;
+                segment++;
+                continue;
+            }
+            int end = dirty.nextClearBit(segment);
+            int[] ids = heldIds.between(starts[segment], endOf(end - 1));
+            if (ids.length % SEGMENT_SIZE != 0 && ids.length % SEGMENT_SIZE < SEGMENT_SIZE / 2 && end < count) {
+                int[] absorbed = heldIds.between(starts[end], endOf(end));
+                ids = Arrays.copyOf(ids, ids.length + absorbed.length);
+                System.arraycopy(absorbed, 0, ids, ids.length - absorbed.length, absorbed.length);
+                end++;
+            }
+            int parts = (ids.length + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+            for (int part = 0; part < parts; part++) {
+                int from = (int) ((long) ids.length * part / parts);
+                int to = (int) ((long) ids.length * (part + 1) / parts);
+                int start = part == 0 ? starts[segment] : ids[from];
+                next.append(start, fileNumbers.getAsLong(), to - from);
+                next.dirty.set(next.count - 1);
+            }
+            segment = end;
+        }
+        starts = Arrays.copyOf(next.starts, next.starts.length);
+        files = Arrays.copyOf(next.files, next.files.length);
+        counts = Arrays.copyOf(next.counts, next.counts.length);
+        listings = Arrays.copyOf(next.listings, next.listings.length);
+        count = next.count;
+        dirty.clear();
+        return next;
+    }
+
+    /**
+     * Obtains the end of the range of IDs held by a segment.
+     *
+     * @param segment Index of segment.
+     * @return ID after the last one in segment.
+     */
+    int endOf(int segment) {
+        return segment + 1 < count ? starts[segment + 1] : Integer.MAX_VALUE;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getStart(int segment) {
+        return starts[segment];
+    }
+
+    long getFile(int segment) {
+        return files[segment];
+    }
+
+    int getItemCount(int segment) {
+        return counts[segment];
+    }
+
+    boolean isDirty(int segment) {
+        return dirty.get(segment);
+    }
+
+    int getListings(int segment) {
+        return listings[segment];
+    }
+
+    void setListings(int segment, int listings) {
+        this.listings[segment] = listings;
+    }
+
+    /**
+     * Source of the IDs of items that are held, including deleted items kept for the undo history.
+     */
+    interface HeldIds {
+        /**
+         * Finds the IDs of items that are held in a range.
+         *
+         * @param from First ID in range.
+         * @param to ID after the last one in range.
+         * @return IDs in ascending order.
+         */
+        int[] between(int from, int to);
+    }
+}
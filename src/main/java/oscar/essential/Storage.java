@@ -1,23 +1,87 @@
 package oscar.essential;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import oscar.exception.OscarException;
+import oscar.item.Item;
+import oscar.metrics.Metrics;
 
 /**
  * Class to handle loading and saving infos from file.
+ * Changes are appended to a journal next to the snapshot file, and the journal is compacted into a new
+ * snapshot once it grows past a size threshold. All file writes happen on a single background writer thread,
+ * which coalesces bursts of changes into one write and fsync, so commands never wait for the disk.
+ * Each snapshot is written to a temporary file and renamed into place, and the previous few snapshots are
+ * kept along with their journals, so that a damaged snapshot can be recovered from the one before it.
+ * A snapshot is a manifest listing segment files of a few thousand items each. Segment files are never changed
+ * once written, so a snapshot writes new files only for the segments whose items changed and shares the rest
+ * with the snapshots before it. No segment file is shared by every kept snapshot, so that one damaged file
+ * leaves a snapshot to recover from. Segment files that no kept snapshot lists are deleted.
  */
 public class Storage {
+    private static final long COMPACTION_THRESHOLD = 1 << 20; // journal size in bytes
+    private static final long RETRY_DELAY = 1000; // milliseconds before a failed write is retried
+    private static final int GENERATIONS = 3; // previous snapshots kept in case the newest is damaged
+    private static final byte ADD = 1;
+    private static final byte DELETE = 2;
+    private static final byte MARK = 3;
+    private static final byte UNMARK = 4;
+    private static final byte DELETE_ALL = 5;
+    private static final byte MARK_ALL = 6;
+    private static final byte UNMARK_ALL = 7;
+    private static final byte UNDO = 8;
+    private static final byte REDO = 9;
+    private static final byte BEGIN_BATCH = 10;
+    private static final byte END_BATCH = 11;
+
     private final String filePath;
+    private final Metrics metrics;
+    private final ItemCodec.Output record = new ItemCodec.Output(256);
+    private final Object lock = new Object();
+
+    private long journalSize;
+    private long sequence;
+    private long nextSegmentFile = -1;
+    private boolean isLegacy;
+    private ItemCodec.Output batch;
+    private long batchSequence;
+    private int batchStart;
+
+    private ArrayDeque<Object> queue = new ArrayDeque<>();
+    private boolean isWriting;
+    private long writeDelay;
+    private int flushWaiters;
+    private IOException failure;
+    private Thread writer;
+    private FileChannel journal;
 
     /**
      * Instantiates a storage object.
@@ -25,49 +89,959 @@ public class Storage {
      * @param filePath Relative location of save file.
      */
     public Storage(String filePath) {
+        this(filePath, new Metrics());
+    }
+
+    /**
+     * Instantiates a storage object that times its writes to the save file.
+     *
+     * @param filePath Relative location of save file.
+     * @param metrics Metrics to record writes in.
+     */
+    public Storage(String filePath, Metrics metrics) {
         this.filePath = filePath;
+        this.metrics = metrics;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets how long the writer holds back changes before writing them, so that a long run of commands is written
+     * in a few large writes rather than one write for each burst. Changes are written sooner when flushed.
+     *
+     * @param writeDelay Milliseconds the writer waits for further changes, none if zero.
+     */
+    public void setWriteDelay(long writeDelay) {
+        synchronized (lock) {
+            this.writeDelay = writeDelay;
+            lock.notifyAll();
+        }
     }
 
     /**
-     * Reads the serialized save file.
+     * Obtains the size on disk of the newest snapshot, its segment files and its journal.
      *
-     * @return Stream of serialized save file.
+     * @return Size in bytes.
+     */
+    public long getSaveFileSize() {
+        long size = sizeOf(snapshotPath(0)) + sizeOf(journalPath(0));
+        try {
+            for (long file : readSegmentFiles(snapshotPath(0))) {
+                size += sizeOf(segmentPath(file));
+            }
+        } catch (IOException e) {
+            // manifest is being replaced by a new snapshot
+        }
+        return size;
+    }
+
+    private static long sizeOf(String path) {
+        try {
+            return Files.size(Paths.get(path));
+        } catch (IOException e) {
+            return 0; // file has not been written yet
+        }
+    }
+
+    private String snapshotPath(int generation) {
+        return generation == 0 ? filePath : filePath + "." + generation;
+    }
+
+    private String journalPath(int generation) {
+        return generation == 0 ? filePath + ".log" : filePath + ".log." + generation;
+    }
+
+    private String segmentPath(long file) {
+        return filePath + ".s" + file;
+    }
+
+    /**
+     * Reads the newest snapshot that is intact and replays the journals written since it on top of it.
+     * A snapshot that is torn or fails its checksum is skipped in favour of the generation before it. If every
+     * snapshot is damaged, the list is rebuilt from the journals only if they hold every change from the empty
+     * list onwards, and otherwise loading fails without changing any file.
+     *
+     * @return Saved info list.
      * @throws OscarException Unable to find or read saved file.
      */
-    public ObjectInputStream load() throws OscarException {
-        File savedFile = new File(filePath);
-        boolean hasFile = savedFile.exists();
-        boolean isDirectory = savedFile.isDirectory();
-        if (!hasFile || isDirectory) {
+    public ItemList load() throws OscarException {
+        ItemList infos = null;
+        boolean hasFile = false;
+        int generation = 0;
+        for (; generation <= GENERATIONS && infos == null; generation++) {
+            File savedFile = new File(snapshotPath(generation));
+            if (savedFile.exists() && !savedFile.isDirectory()) {
+                hasFile = true;
+                infos = loadSnapshotIfIntact(savedFile);
+            }
+        }
+        if (infos != null) {
+            countListings(infos.getSegments(), generation - 1);
+        }
+        boolean hasJournal = false;
+        for (int i = 0; i <= GENERATIONS; i++) {
+            hasJournal |= new File(journalPath(i)).isFile();
+        }
+        if (!hasFile && !hasJournal) {
             throw new OscarException("Sorry! Oscar cannot find a saved file to load.\n");
         }
+        if (infos == null) {
+            if (!hasJournal) {
+                throw new OscarException("Sorry! There is an error loading the saved file.\n");
+            }
+            infos = new ItemList(); // every snapshot is damaged, so rebuild from the journals if they are complete
+            sequence = 0;
+        }
+        for (int i = generation - 1; i >= 0; i--) {
+            File journalFile = new File(journalPath(i));
+            if (journalFile.isFile()) {
+                replay(infos, journalFile);
+            }
+        }
+        if (isLegacy) {
+            save(infos);
+            isLegacy = false;
+        }
+        return infos;
+    }
+
+    /**
+     * Counts the kept snapshots that list each segment file of the loaded snapshot, so that the next snapshot
+     * rewrites the segments that would otherwise be shared by every kept snapshot. A manifest that cannot be read
+     * is counted as listing every file. A list recovered from an older generation is rewritten in full, since
+     * its files may be the only intact copies once that generation is dropped.
+     *
+     * @param segments Layout of the loaded snapshot.
+     * @param loadedGeneration Generation of the loaded snapshot.
+     */
+    private void countListings(Segments segments, int loadedGeneration) {
+        for (int i = 0; i < segments.getCount(); i++) {
+            segments.setListings(i, loadedGeneration == 0 ? 1 : GENERATIONS);
+        }
+        for (int generation = 1; generation <= GENERATIONS && loadedGeneration == 0; generation++) {
+            Set<Long> files = new HashSet<>();
+            try {
+                for (long file : readSegmentFiles(snapshotPath(generation))) {
+                    files.add(file);
+                }
+            } catch (IOException e) {
+                files = null; // damaged manifest, assumed to list every file
+            }
+            for (int i = 0; i < segments.getCount(); i++) {
+                if (segments.getListings(i) == generation && (files == null || files.contains(segments.getFile(i)))) {
+                    segments.setListings(i, generation + 1);
+                }
+            }
+        }
+    }
+
+    private ItemList loadSnapshotIfIntact(File savedFile) {
         try {
-            FileInputStream fileInputStream = new FileInputStream(savedFile);
-            return new ObjectInputStream(fileInputStream);
+            return loadSnapshot(savedFile);
+        } catch (OscarException e) {
+            isLegacy = false;
+            return null;
+        }
+    }
+
+    /**
+     * Maps the snapshot file into memory and reads the sequence number of the last journal record it contains.
+     * Items are only indexed here and decoded when they are used.
+     * Snapshots in the legacy serialized format are read once and rewritten in the binary format, while
+     * snapshots written as a single file are split into segments by the next snapshot.
+     *
+     * @param savedFile Snapshot file.
+     * @return Info list in the snapshot.
+     * @throws OscarException Unable to read snapshot file.
+     */
+    private ItemList loadSnapshot(File savedFile) throws OscarException {
+        try (FileChannel channel = FileChannel.open(savedFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!ItemCodec.hasHeader(in)) {
+                isLegacy = true;
+                return loadLegacySnapshot(savedFile);
+            }
+            boolean isManifest = ItemCodec.isManifest(in);
+            boolean hasHistory = ItemCodec.hasHistory(in);
+            long[] header = ItemCodec.readHeader(in);
+            sequence = header[0];
+            int count = (int) header[1];
+            if (isManifest) {
+                return loadSegments(in, count, hasHistory);
+            }
+            return new ItemList(MappedItems.map(in, count), Segments.unwritten(count));
+        } catch (IOException | BufferUnderflowException e) {
+            throw new OscarException("Sorry! There is an error loading the saved file.\n");
+        }
+    }
+
+    /**
+     * Maps every segment file listed in a manifest. Segments are verified against their checksums and indexed
+     * in parallel, each into its own part of the list.
+     *
+     * @param manifest Manifest positioned after its header.
+     * @param segmentCount Number of segments listed.
+     * @param hasHistory True if the undo history follows the segments.
+     * @return Info list in the segments.
+     * @throws IOException A segment file is missing, damaged or does not match the manifest.
+     */
+    private ItemList loadSegments(ByteBuffer manifest, int segmentCount, boolean hasHistory) throws IOException {
+        Segments segments = new Segments();
+        int[] firstItems = new int[segmentCount + 1];
+        for (int i = 0; i < segmentCount; i++) {
+            long file = ItemCodec.readVarLong(manifest);
+            long itemCount = ItemCodec.readVarLong(manifest);
+            if (itemCount <= 0 || firstItems[i] + itemCount > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("Manifest lists an invalid segment");
+            }
+            segments.append(firstItems[i], file, (int) itemCount);
+            firstItems[i + 1] = firstItems[i] + (int) itemCount;
+        }
+        History history = hasHistory ? History.read(manifest, ItemList.UNDO_DEPTH, firstItems[segmentCount])
+                : new History(ItemList.UNDO_DEPTH);
+        ByteBuffer[] buffers = new ByteBuffer[segmentCount];
+        MappedItems items = new MappedItems(buffers, firstItems[segmentCount]);
+        BitSet[] doneItems = new BitSet[segmentCount];
+        BitSet[] deletedItems = new BitSet[segmentCount];
+        List<Callable<Void>> tasks = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            int segment = i;
+            doneItems[segment] = new BitSet();
+            deletedItems[segment] = new BitSet();
+            tasks.add(() -> {
+                int itemCount = segments.getItemCount(segment);
+                buffers[segment] = mapSegment(segments.getFile(segment), itemCount);
+                items.index(segment, firstItems[segment], itemCount, doneItems[segment], deletedItems[segment]);
+                return null;
+            });
+        }
+        runInParallel(tasks);
+        BitSet deleted = new BitSet();
+        for (int i = 0; i < segmentCount; i++) {
+            items.setDone(firstItems[i], doneItems[i]);
+            for (int j = deletedItems[i].nextSetBit(0); j >= 0; j = deletedItems[i].nextSetBit(j + 1)) {
+                deleted.set(firstItems[i] + j);
+            }
+        }
+        return new ItemList(items, segments, deleted, history);
+    }
+
+    private ByteBuffer mapSegment(long file, int itemCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(segmentPath(file)), StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (ItemCodec.readHeader(in)[1] != itemCount) {
+                throw new StreamCorruptedException("Segment does not match manifest");
+            }
+            return in;
+        }
+    }
+
+    private static void runInParallel(List<Callable<Void>> tasks) throws IOException {
+        try {
+            for (Future<Void> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading segments");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            for (Throwable wrapped = cause; wrapped != null; wrapped = wrapped.getCause()) {
+                if (wrapped instanceof IOException) {
+                    throw (IOException) wrapped; // the pool wraps checked exceptions of its tasks
+                }
+                if (wrapped instanceof BufferUnderflowException) {
+                    throw (BufferUnderflowException) wrapped;
+                }
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Reads the numbers of the segment files listed in a manifest.
+     *
+     * @param path Path of manifest.
+     * @return Numbers of segment files, none if there is no manifest or the snapshot is a single file.
+     * @throws IOException Manifest cannot be read or is damaged.
+     */
+    private static long[] readSegmentFiles(String path) throws IOException {
+        Path manifestFile = Paths.get(path);
+        if (!Files.isRegularFile(manifestFile)) {
+            return new long[0];
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(manifestFile));
+        if (!ItemCodec.isManifest(in)) {
+            return new long[0];
+        }
+        try {
+            long[] files = new long[(int) ItemCodec.readHeader(in)[1]];
+            for (int i = 0; i < files.length; i++) {
+                files[i] = ItemCodec.readVarLong(in);
+                ItemCodec.readVarLong(in);
+            }
+            return files;
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("Manifest is truncated");
+        }
+    }
+
+    private ItemList loadLegacySnapshot(File savedFile) throws IOException, OscarException {
+        try (ObjectInputStream stream = new ObjectInputStream(
+                new ByteArrayInputStream(Files.readAllBytes(savedFile.toPath())))) {
+            ItemList infos = new ItemList(stream);
+            try {
+                sequence = stream.readLong();
+            } catch (EOFException e) {
+                sequence = 0; // saved before journalling was introduced
+            }
+            return infos;
+        }
+    }
+
+    /**
+     * Applies journal records that are newer than the snapshot to the info list.
+     * A torn record at the end of the journal, left behind by a crash, ends the replay and is cut off. Any other
+     * record that cannot be read or applied, or a gap in the sequence numbers, means that the journal does not
+     * belong to the snapshot, so loading fails and the journal is left as it is.
+     *
+     * @param infos Info list loaded from the snapshot.
+     * @param journalFile Journal file.
+     * @throws OscarException Unable to read journal file, or journal does not match the info list.
+     */
+    private void replay(ItemList infos, File journalFile) throws OscarException {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(journalFile.toPath()));
+            int validLength = 0;
+            int batchStart = -1;
+            long batchSequence = sequence;
+            try {
+                while (in.hasRemaining()) {
+                    int start = in.position();
+                    long recordSequence = ItemCodec.readVarLong(in);
+                    byte operation = in.get();
+                    if (recordSequence > sequence + 1) {
+                        throw new StreamCorruptedException("Journal is missing the changes before "
+                                + recordSequence);
+                    }
+                    if (operation == ADD) {
+                        Item item = ItemCodec.readItem(in);
+                        if (recordSequence > sequence) {
+                            infos.add(item);
+                        }
+                    } else if (operation >= UNDO) {
+                        if (operation == BEGIN_BATCH) {
+                            batchStart = start;
+                            batchSequence = sequence;
+                        } else if (operation == END_BATCH) {
+                            batchStart = -1;
+                        }
+                        if (recordSequence > sequence) {
+                            applyHistory(infos, operation);
+                        }
+                    } else if (operation >= DELETE_ALL) {
+                        BitSet indexes = ItemCodec.readIndexes(in);
+                        if (recordSequence > sequence) {
+                            applyAll(infos, operation, indexes);
+                        }
+                    } else {
+                        int index = (int) ItemCodec.readVarLong(in);
+                        if (recordSequence > sequence) {
+                            apply(infos, operation, index);
+                        }
+                    }
+                    sequence = Math.max(sequence, recordSequence);
+                    validLength = in.position();
+                }
+            } catch (BufferUnderflowException e) {
+                // the last record was torn by a crash
+            }
+            if (batchStart >= 0) {
+                infos.rollback(); // a batch is kept whole or not at all
+                validLength = batchStart;
+                sequence = batchSequence;
+            }
+            if (validLength < in.limit()) {
+                try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength);
+                }
+            }
+            journalSize += validLength;
         } catch (IOException e) {
             throw new OscarException("Sorry! There is an error loading the saved file.\n");
         }
     }
 
     /**
-     * Saves the info list to a text file after executing a command.
-     * Solution adapted by <a href="https://howtodoinjava.com/java/collections/arraylist/
-     * serialize-deserialize-arraylist/">...</a>
+     * Applies a journalled delete, mark or unmark to the info list.
+     * Marks are applied leniently because a background snapshot may already contain them.
+     *
+     * @param infos Info list being restored.
+     * @param operation Journal operation.
+     * @param index Index of item affected.
+     * @throws IOException Journal refers to an item that does not exist.
+     */
+    private static void apply(ItemList infos, byte operation, int index) throws IOException {
+        if (index < 0 || index >= infos.getSize()) {
+            throw new StreamCorruptedException("Journal refers to a missing item");
+        }
+        try {
+            if (operation == DELETE) {
+                infos.delete(index);
+            } else if (operation == MARK) {
+                infos.mark(index);
+            } else if (operation == UNMARK) {
+                infos.unmark(index);
+            } else {
+                throw new StreamCorruptedException("Unknown journal operation " + operation);
+            }
+        } catch (OscarException e) {
+            // task is already in the journalled state
+        }
+    }
+
+    /**
+     * Applies a journalled undo, redo or batch boundary to the info list. An undo or redo that finds nothing to
+     * apply is skipped.
+     *
+     * @param infos Info list being restored.
+     * @param operation Journal operation.
+     * @throws IOException Journal operation is not recognised.
+     */
+    private static void applyHistory(ItemList infos, byte operation) throws IOException {
+        try {
+            if (operation == UNDO) {
+                infos.undo();
+            } else if (operation == REDO) {
+                infos.redo();
+            } else if (operation == BEGIN_BATCH) {
+                infos.begin();
+            } else if (operation == END_BATCH) {
+                infos.commit();
+            } else {
+                throw new StreamCorruptedException("Unknown journal operation " + operation);
+            }
+        } catch (OscarException e) {
+            // history no longer matches, so the journalled state is already in place
+        }
+    }
+
+    /**
+     * Applies a journalled change to many items to the info list.
+     *
+     * @param infos Info list being restored.
+     * @param operation Journal operation.
+     * @param indexes Indexes of items affected.
+     * @throws IOException Journal refers to an item that does not exist.
+     */
+    private static void applyAll(ItemList infos, byte operation, BitSet indexes) throws IOException {
+        if (indexes.length() > infos.getSize()) {
+            throw new StreamCorruptedException("Journal refers to a missing item");
+        }
+        if (operation == DELETE_ALL) {
+            infos.deleteAll(indexes);
+        } else if (operation == MARK_ALL) {
+            infos.markAll(indexes, true);
+        } else if (operation == UNMARK_ALL) {
+            infos.markAll(indexes, false);
+        } else {
+            throw new StreamCorruptedException("Unknown journal operation " + operation);
+        }
+    }
+
+    /**
+     * Saves the whole info list as a new snapshot and clears the journal, waiting until it is on disk.
      *
      * @param infos Current info list.
-     * @throws OscarException Unable to serialise info list.
+     * @throws OscarException Unable to write the snapshot.
      */
     public void save(ItemList infos) throws OscarException {
-        Path parentDir = Paths.get(filePath).getParent();
+        if (sequence == 0 && infos.getSlotCount() > 0) {
+            sequence = 1; // items that were never journalled, so journals alone cannot rebuild this snapshot
+        }
+        enqueue(new Snapshot(infos.snapshot(this::newSegmentFile, GENERATIONS), sequence));
+        journalSize = 0;
+        flush();
+    }
+
+    /**
+     * Waits until every change so far has been written to disk.
+     *
+     * @throws OscarException Background writer is failing to write.
+     */
+    public void flush() throws OscarException {
+        synchronized (lock) {
+            flushWaiters++;
+            lock.notifyAll();
+            try {
+                while ((!queue.isEmpty() || isWriting) && failure == null) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OscarException("Sorry! Oscar was interrupted while saving your infos.\n");
+            } finally {
+                flushWaiters--;
+            }
+            if (failure != null) {
+                throw new OscarException("Sorry! Oscar could not save your infos. Oscar will keep trying.\n");
+            }
+        }
+    }
+
+    /**
+     * Records the addition of an item to the end of the info list.
+     *
+     * @param infos Current info list.
+     * @param item Item added.
+     */
+    public void recordAdd(ItemList infos, Item item) {
+        startRecord(ADD);
+        ItemCodec.writeItem(record, item);
+        append(infos);
+    }
+
+    /**
+     * Records the deletion of an item.
+     *
+     * @param infos Current info list.
+     * @param index Index of item deleted.
+     */
+    public void recordDelete(ItemList infos, int index) {
+        recordIndex(infos, DELETE, index);
+    }
+
+    /**
+     * Records a task being marked as done.
+     *
+     * @param infos Current info list.
+     * @param index Index of task marked.
+     */
+    public void recordMark(ItemList infos, int index) {
+        recordIndex(infos, MARK, index);
+    }
+
+    /**
+     * Records a task being marked as not done.
+     *
+     * @param infos Current info list.
+     * @param index Index of task unmarked.
+     */
+    public void recordUnmark(ItemList infos, int index) {
+        recordIndex(infos, UNMARK, index);
+    }
+
+    /**
+     * Records the deletion of many items as a single journal record.
+     *
+     * @param infos Current info list.
+     * @param indexes Indexes of items deleted, counted before the deletion.
+     */
+    public void recordDeleteAll(ItemList infos, BitSet indexes) {
+        recordIndexes(infos, DELETE_ALL, indexes);
+    }
+
+    /**
+     * Records many tasks being marked as done or not done as a single journal record.
+     *
+     * @param infos Current info list.
+     * @param indexes Indexes of tasks changed.
+     * @param isDone True if the tasks were marked as done.
+     */
+    public void recordMarkAll(ItemList infos, BitSet indexes, boolean isDone) {
+        recordIndexes(infos, isDone ? MARK_ALL : UNMARK_ALL, indexes);
+    }
+
+    /**
+     * Records the latest change being undone.
+     *
+     * @param infos Current info list.
+     */
+    public void recordUndo(ItemList infos) {
+        startRecord(UNDO);
+        append(infos);
+    }
+
+    /**
+     * Records the latest change that was undone being applied again.
+     *
+     * @param infos Current info list.
+     */
+    public void recordRedo(ItemList infos) {
+        startRecord(REDO);
+        append(infos);
+    }
+
+    private void recordIndexes(ItemList infos, byte operation, BitSet indexes) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        startRecord(operation);
+        ItemCodec.writeIndexes(record, indexes);
+        append(infos);
+    }
+
+    private void recordIndex(ItemList infos, byte operation, int index) {
+        startRecord(operation);
+        record.writeVarLong(index);
+        append(infos);
+    }
+
+    private void startRecord(byte operation) {
+        record.reset();
+        record.writeVarLong(sequence + 1);
+        record.write(operation);
+    }
+
+    /**
+     * Starts holding back journal records so that a batch of commands is persisted in one write.
+     * The records are written between records marking the start and end of the batch, so that the batch is
+     * replayed as a single change to undo, and a batch torn by a crash is dropped whole.
+     */
+    public void beginBatch() {
+        batch = new ItemCodec.Output(4096);
+        batchSequence = sequence;
+        startRecord(BEGIN_BATCH);
+        append(null);
+        batchStart = batch.size();
+    }
+
+    /**
+     * Hands every record held back since the batch began to the writer as a single write.
+     *
+     * @param infos Current info list.
+     */
+    public void commitBatch(ItemList infos) {
+        if (batch == null) {
+            return;
+        }
+        if (batch.size() == batchStart) {
+            rollbackBatch(); // nothing changed
+            return;
+        }
+        startRecord(END_BATCH);
+        append(infos);
+        ItemCodec.Output records = batch;
+        batch = null;
+        write(infos, records);
+    }
+
+    /**
+     * Discards every record held back since the batch began.
+     */
+    public void rollbackBatch() {
+        if (batch != null) {
+            batch = null;
+            sequence = batchSequence;
+        }
+    }
+
+    /**
+     * Appends the current record to the journal, or holds it back until the current batch is committed.
+     *
+     * @param infos Current info list.
+     */
+    private void append(ItemList infos) {
+        sequence++;
+        if (batch != null) {
+            batch.write(record);
+            return;
+        }
+        write(infos, record);
+    }
+
+    /**
+     * Hands complete records to the writer, and a snapshot as well once the journal is large enough.
+     *
+     * @param infos Current info list.
+     * @param records Encoded records.
+     */
+    private void write(ItemList infos, ItemCodec.Output records) {
+        journalSize += records.size();
+        synchronized (lock) {
+            boolean isIdle = queue.isEmpty();
+            Object last = queue.peekLast();
+            if (last instanceof ItemCodec.Output) {
+                ((ItemCodec.Output) last).write(records);
+            } else {
+                ItemCodec.Output copy = new ItemCodec.Output(records.size());
+                copy.write(records);
+                queue.addLast(copy);
+            }
+            if (journalSize > COMPACTION_THRESHOLD) {
+                queue.addLast(new Snapshot(infos.snapshot(this::newSegmentFile, GENERATIONS), sequence));
+                journalSize = 0;
+            }
+            startWriter();
+            if (isIdle) {
+                lock.notifyAll(); // a busy writer takes these records along with the ones already queued
+            }
+        }
+    }
+
+    private void enqueue(Snapshot snapshot) {
+        synchronized (lock) {
+            queue.addLast(snapshot);
+            startWriter();
+            lock.notifyAll();
+        }
+    }
+
+    private void startWriter() {
+        assert Thread.holdsLock(lock);
+        if (writer == null) {
+            writer = new Thread(this::runWriter, "oscar-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    /**
+     * Takes every queued job at once and writes them in order, once the write delay has passed or a flush is
+     * waiting. Records queued before a snapshot are already in the journal when the snapshot replaces it, and
+     * records queued after it go into the new journal.
+     * Failed jobs are put back at the front of the queue and retried.
+     */
+    private void runWriter() {
+        while (true) {
+            ArrayDeque<Object> jobs;
+            synchronized (lock) {
+                try {
+                    while (queue.isEmpty()) {
+                        lock.wait();
+                    }
+                    long deadline = System.nanoTime() + writeDelay * 1_000_000;
+                    long remaining;
+                    while (flushWaiters == 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                        lock.wait(remaining / 1_000_000 + 1);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                jobs = queue;
+                queue = new ArrayDeque<>();
+                isWriting = true;
+            }
+            IOException error = null;
+            try {
+                writeJobs(jobs);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (lock) {
+                if (error != null) {
+                    jobs.addAll(queue);
+                    queue = jobs;
+                }
+                failure = error;
+                isWriting = false;
+                lock.notifyAll();
+            }
+            if (error != null) {
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void writeJobs(ArrayDeque<Object> jobs) throws IOException {
+        boolean isSynced = true;
+        long journalNanos = 0;
+        while (!jobs.isEmpty()) {
+            Object job = jobs.peekFirst();
+            long start = System.nanoTime();
+            if (job instanceof ItemCodec.Output) {
+                appendToJournal((ItemCodec.Output) job);
+                journalNanos += System.nanoTime() - start;
+                isSynced = false;
+            } else {
+                Snapshot snapshot = (Snapshot) job;
+                writeSnapshot(snapshot.infos, snapshot.sequence);
+                metrics.recordSnapshot(System.nanoTime() - start);
+                isSynced = true;
+            }
+            jobs.pollFirst();
+        }
+        if (!isSynced) {
+            long start = System.nanoTime();
+            journal.force(false);
+            metrics.recordJournalWrite(journalNanos + System.nanoTime() - start);
+        }
+    }
+
+    private void appendToJournal(ItemCodec.Output records) throws IOException {
+        if (journal == null) {
+            Path journalFile = Paths.get(journalPath(0));
+            Files.createDirectories(journalFile.toAbsolutePath().getParent());
+            journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        long size = journal.size();
+        try {
+            ByteBuffer bytes = records.toByteBuffer();
+            while (bytes.hasRemaining()) {
+                journal.write(bytes);
+            }
+        } catch (IOException e) {
+            journal.truncate(size); // drop a partly written record so that the retry follows a whole one
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the changed segments of a snapshot and then its manifest, each with its checksum and forced to
+     * disk. The manifest goes to a temporary file first. Every older snapshot is then moved back a generation
+     * along with the journal written after it, dropping the oldest, and the temporary file is renamed into
+     * place. A crash at any point leaves an intact snapshot with every journal written since it, and segment
+     * files left behind by a crash are deleted after the next snapshot.
+     *
+     * @param infos Info list to save, laid out in the segments of the snapshot.
+     * @param snapshotSequence Sequence number of the last journal record included.
+     * @throws IOException Unable to write snapshot.
+     */
+    private void writeSnapshot(ItemList infos, long snapshotSequence) throws IOException {
+        Path savedFile = Paths.get(filePath);
+        Path tempFile = Paths.get(filePath + ".tmp");
+        Files.createDirectories(savedFile.toAbsolutePath().getParent());
+        Segments segments = infos.getSegments();
+        ItemCodec.Output manifest = new ItemCodec.Output(16 + segments.getCount() * 8);
+        ItemCodec.writeHeader(manifest, ItemCodec.MANIFEST_VERSION, snapshotSequence, segments.getCount());
+        for (int i = 0; i < segments.getCount(); i++) {
+            if (segments.isDirty(i)) {
+                writeSegment(infos, segments, i, snapshotSequence);
+            }
+            manifest.writeVarLong(segments.getFile(i));
+            manifest.writeVarLong(segments.getItemCount(i));
+        }
+        infos.writeHistory(manifest);
+        ItemCodec.writeFooter(manifest);
+        writeFile(tempFile, manifest);
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        for (int i = GENERATIONS; i > 0; i--) {
+            moveBack(snapshotPath(i - 1), snapshotPath(i));
+            moveBack(journalPath(i - 1), journalPath(i));
+        }
+        Files.move(tempFile, savedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        deleteUnusedSegments();
+    }
+
+    private void writeSegment(ItemList infos, Segments segments, int segment, long snapshotSequence)
+            throws IOException {
+        int itemCount = segments.getItemCount(segment);
+        ItemCodec.Output out = new ItemCodec.Output(itemCount * 32);
+        ItemCodec.writeHeader(out, snapshotSequence, itemCount);
+        infos.writeItems(out, segments.getStart(segment), segments.endOf(segment));
+        ItemCodec.writeFooter(out);
+        writeFile(Paths.get(segmentPath(segments.getFile(segment))), out);
+    }
+
+    private static void writeFile(Path file, ItemCodec.Output out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = out.toByteBuffer();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Deletes every segment file that no kept snapshot lists. Nothing is deleted while any manifest cannot be
+     * read, so that a failed read never costs a snapshot its segments.
+     */
+    private void deleteUnusedSegments() {
         try {
-            Files.createDirectories(parentDir);
-            FileOutputStream fileOutputStream = new FileOutputStream(filePath);
-            ObjectOutputStream objectOutputStream = new ObjectOutputStream(fileOutputStream);
-            infos.save(objectOutputStream);
-        } catch (FileNotFoundException e) {
-            throw new OscarException("Sorry! File is not found.\n");
+            Set<Long> used = new HashSet<>();
+            for (int i = 0; i <= GENERATIONS; i++) {
+                for (long file : readSegmentFiles(snapshotPath(i))) {
+                    used.add(file);
+                }
+            }
+            for (Map.Entry<Long, Path> segment : listSegmentFiles().entrySet()) {
+                if (!used.contains(segment.getKey())) {
+                    Files.deleteIfExists(segment.getValue());
+                }
+            }
         } catch (IOException e) {
-            throw new OscarException("Sorry! There is an issue with your input or output.\n");
+            // left for the next snapshot to delete
+        }
+    }
+
+    /**
+     * Finds every segment file next to the save file, whether or not a snapshot lists it.
+     *
+     * @return Segment files by number.
+     * @throws IOException Unable to list the directory.
+     */
+    private Map<Long, Path> listSegmentFiles() throws IOException {
+        Path savedFile = Paths.get(filePath).toAbsolutePath();
+        String prefix = savedFile.getFileName() + ".s";
+        Map<Long, Path> segments = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(savedFile.getParent(),
+                file -> file.getFileName().toString().startsWith(prefix))) {
+            for (Path file : files) {
+                String number = file.getFileName().toString().substring(prefix.length());
+                if (!number.isEmpty() && number.chars().allMatch(Character::isDigit) && number.length() < 19) {
+                    segments.put(Long.parseLong(number), file);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // nothing has been saved yet
+        }
+        return segments;
+    }
+
+    /**
+     * Allocates the number of a new segment file, after every segment file already on disk.
+     *
+     * @return Number of segment file.
+     */
+    private long newSegmentFile() {
+        if (nextSegmentFile < 0) {
+            try {
+                nextSegmentFile = 0;
+                for (long file : listSegmentFiles().keySet()) {
+                    nextSegmentFile = Math.max(nextSegmentFile, file + 1);
+                }
+            } catch (IOException e) {
+                nextSegmentFile = System.currentTimeMillis(); // past any number this storage has used
+            }
+        }
+        return nextSegmentFile++;
+    }
+
+    private static void moveBack(String from, String to) throws IOException {
+        Path source = Paths.get(from);
+        Path target = Paths.get(to);
+        if (Files.exists(source)) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } else {
+            Files.deleteIfExists(target); // keep every journal paired with the snapshot it follows
+        }
+    }
+
+    /**
+     * Copy of the info list to be written as a snapshot once the records before it are in the journal.
+     */
+    private static class Snapshot {
+        private final ItemList infos;
+        private final long sequence;
+
+        Snapshot(ItemList infos, long sequence) {
+            this.infos = infos;
+            this.sequence = sequence;
         }
     }
 }
@@ -0,0 +1,193 @@
+package oscar.essential;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+
+/**
+ * Sorted index of deadlines and events keyed on epoch seconds, so that items in a time range are found in
+ * O(log n) plus the number of matches.
+ * Events are keyed on their start. An event that started before a range can still overlap it, so event
+ * lookups also reach back before the range. To keep one long event from making every lookup reach back far,
+ * events are kept in classes of lengths within a power of two of each other, and each class only reaches back
+ * by the length of its longest event. Any event of a class that starts within its reach but ends before the
+ * range is at most one class length away from it. Items are identified by their stable IDs, and IDs of
+ * deleted items are left in place and skipped by the caller.
+ */
+class TimeIndex {
+    private final TreeMap<Long, Bucket> deadlines = new TreeMap<>();
+    private final LengthClass[] events = new LengthClass[Long.SIZE + 1]; // by bit length of event length
+
+    /**
+     * Indexes the dates of an item. Items without dates are ignored.
+     *
+     * @param id ID of item, larger than any indexed before.
+     * @param item Item to index.
+     */
+    void add(int id, Item item) {
+        if (item instanceof DeadlineTask) {
+            long deadline = toSeconds(((DeadlineTask) item).getDeadline());
+            deadlines.computeIfAbsent(deadline, key -> new Bucket()).add(id, deadline);
+        } else if (item instanceof EventTask) {
+            long start = toSeconds(((EventTask) item).getStart());
+            long end = toSeconds(((EventTask) item).getEnd());
+            long length = Math.max(end - start, 0);
+            int lengthClass = Long.SIZE - Long.numberOfLeadingZeros(length);
+            if (events[lengthClass] == null) {
+                events[lengthClass] = new LengthClass();
+            }
+            events[lengthClass].add(id, start, end);
+        }
+    }
+
+    /**
+     * Finds deadlines that are due strictly before a time.
+     *
+     * @param before Time to compare against.
+     * @return IDs of deadlines in order of their deadlines.
+     */
+    int[] dueBefore(LocalDateTime before) {
+        Hits hits = new Hits();
+        for (Map.Entry<Long, Bucket> entry : deadlines.headMap(toSeconds(before), false).entrySet()) {
+            hits.addAll(entry.getKey(), entry.getValue(), Long.MIN_VALUE);
+        }
+        return hits.ids();
+    }
+
+    /**
+     * Finds deadlines due within a range and events that overlap it, both ends included.
+     *
+     * @param from Start of range.
+     * @param to End of range.
+     * @return IDs of items in order of their deadline or start.
+     */
+    int[] overlapping(LocalDateTime from, LocalDateTime to) {
+        return findOverlapping(toSeconds(from), toSeconds(to)).ids();
+    }
+
+    /**
+     * Counts the deadlines and events visited to find the items overlapping a range, whether or not they match.
+     *
+     * @param from Start of range.
+     * @param to End of range.
+     * @return Number of items visited.
+     */
+    int countVisited(LocalDateTime from, LocalDateTime to) {
+        return findOverlapping(toSeconds(from), toSeconds(to)).visited;
+    }
+
+    private Hits findOverlapping(long start, long end) {
+        Hits hits = new Hits();
+        for (Map.Entry<Long, Bucket> entry : deadlines.subMap(start, true, end, true).entrySet()) {
+            hits.addAll(entry.getKey(), entry.getValue(), Long.MIN_VALUE);
+        }
+        for (LengthClass lengthClass : events) {
+            if (lengthClass == null) {
+                continue;
+            }
+            int split = hits.size;
+            for (Map.Entry<Long, Bucket> entry : lengthClass.starts
+                    .subMap(start - lengthClass.longest, true, end, true).entrySet()) {
+                hits.addAll(entry.getKey(), entry.getValue(), start);
+            }
+            if (split > 0 && split < hits.size) {
+                hits.merge(split);
+            }
+        }
+        return hits;
+    }
+
+    private static long toSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Events whose lengths have the same bit length, keyed on their start.
+     */
+    private static class LengthClass {
+        private final TreeMap<Long, Bucket> starts = new TreeMap<>();
+        private long longest;
+
+        private void add(int id, long start, long end) {
+            starts.computeIfAbsent(start, key -> new Bucket()).add(id, end);
+            longest = Math.max(longest, end - start);
+        }
+    }
+
+    /**
+     * Items sharing a key, in ascending order of ID, with the end of each.
+     */
+    private static class Bucket {
+        private int[] ids = new int[1];
+        private long[] ends = new long[1];
+        private int size;
+
+        private void add(int id, long end) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            ids[size] = id;
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    /**
+     * Matching IDs in order of time and then ID, with the time of each. Each sorted run of IDs found is merged
+     * into the IDs found before it.
+     */
+    private static class Hits {
+        private long[] times = new long[16];
+        private int[] ids = new int[16];
+        private int size;
+        private int visited;
+
+        private void addAll(long time, Bucket bucket, long notEndingBefore) {
+            visited += bucket.size;
+            for (int i = 0; i < bucket.size; i++) {
+                if (bucket.ends[i] < notEndingBefore) {
+                    continue;
+                }
+                if (size == ids.length) {
+                    times = Arrays.copyOf(times, size * 2);
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                times[size] = time;
+                ids[size] = bucket.ids[i];
+                size++;
+            }
+        }
+
+        /**
+         * Merges the IDs found before a split with the sorted run after it, ordered by time and then by ID.
+         *
+         * @param split Start of the second run.
+         */
+        private void merge(int split) {
+            long[] mergedTimes = new long[size];
+            int[] mergedIds = new int[size];
+            int first = 0;
+            int second = split;
+            for (int i = 0; i < size; i++) {
+                boolean takeFirst = second == size || first < split && (times[first] < times[second]
+                        || times[first] == times[second] && ids[first] < ids[second]);
+                int from = takeFirst ? first++ : second++;
+                mergedTimes[i] = times[from];
+                mergedIds[i] = ids[from];
+            }
+            times = mergedTimes;
+            ids = mergedIds;
+        }
+
+        private int[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package oscar.item;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Deadline task that contains description of task and deadline.
  */
 public class DeadlineTask extends Task {
+    private static final long serialVersionUID = -482157438337459628L;
+
     private final LocalDateTime deadline;
 
     /**
@@ -20,6 +21,15 @@ public class DeadlineTask extends Task {
         this.deadline = deadline;
     }
 
+    /**
+     * Obtains deadline of task.
+     *
+     * @return Date and time of deadline.
+     */
+    public LocalDateTime getDeadline() {
+        return this.deadline;
+    }
+
     /**
      * Obtains string representation of deadline.
      *
@@ -27,7 +37,6 @@ public class DeadlineTask extends Task {
      */
     @Override
     public String toString() {
-        return super.toString() + " (by: "
-                + this.deadline.format(DateTimeFormatter.ofPattern("MMM d yyyy h:mma")) + ")";
+        return super.toString() + " (by: " + DISPLAY_FORMAT.format(this.deadline) + ")";
     }
 }
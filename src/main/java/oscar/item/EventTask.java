@@ -1,13 +1,14 @@
 package oscar.item;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Event task that contains description of event,
  * as well as start and end date/time.
  */
 public class EventTask extends Task {
+    private static final long serialVersionUID = 3489596281978627498L;
+
     private final LocalDateTime start;
     private final LocalDateTime end;
 
@@ -24,6 +25,24 @@ public class EventTask extends Task {
         this.end = end;
     }
 
+    /**
+     * Obtains start date and time of event.
+     *
+     * @return Start date and time.
+     */
+    public LocalDateTime getStart() {
+        return this.start;
+    }
+
+    /**
+     * Obtains end date and time of event.
+     *
+     * @return End date and time.
+     */
+    public LocalDateTime getEnd() {
+        return this.end;
+    }
+
     /**
      * Obtains string representation of event.
      *
@@ -32,7 +51,7 @@ public class EventTask extends Task {
     @Override
     public String toString() {
         return super.toString()
-                + " (from: " + this.start.format(DateTimeFormatter.ofPattern("MMM d yyyy h:mma"))
-                + " to: " + this.end.format(DateTimeFormatter.ofPattern("MMM d yyyy h:mma")) + ")";
+                + " (from: " + DISPLAY_FORMAT.format(this.start)
+                + " to: " + DISPLAY_FORMAT.format(this.end) + ")";
     }
 }
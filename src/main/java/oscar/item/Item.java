@@ -1,11 +1,16 @@
 package oscar.item;
 
 import java.io.Serializable;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Abstract Item superclass that note and task classes inherit from.
  */
 public abstract class Item implements Serializable {
+    private static final long serialVersionUID = 2032177506121600658L;
+
+    static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy h:mma");
+
     final String description;
     final String type;
 
@@ -27,4 +32,13 @@ public abstract class Item implements Serializable {
     public String getDescription() {
         return this.description;
     }
+
+    /**
+     * Obtains type of item.
+     *
+     * @return String type of item, "D", "E", "N" or "T".
+     */
+    public String getType() {
+        return this.type;
+    }
 }
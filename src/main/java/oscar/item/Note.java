@@ -4,6 +4,8 @@ package oscar.item;
  * Note class that supports recording and managing textual information.
  */
 public class Note extends Item {
+    private static final long serialVersionUID = -8111622182846409459L;
+
     /**
      * Public constructor to create a note.
      *
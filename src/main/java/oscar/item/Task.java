@@ -5,6 +5,8 @@ package oscar.item;
  * Taken from hint.
  */
 public abstract class Task extends Item {
+    private static final long serialVersionUID = -4843229872856568260L;
+
     private boolean isDone;
 
     /**
@@ -4,6 +4,8 @@ package oscar.item;
  * Todo task that contains description of task.
  */
 public class TodoTask extends Task {
+    private static final long serialVersionUID = 2921948414681694781L;
+
     /**
      * Public constructor of todo.
      *
@@ -0,0 +1,104 @@
+package oscar.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds that can be recorded from several threads without locking.
+ * Each power of two is split into four buckets, so a percentile read from it is within 25% of the exact value.
+ * It takes about 2 KB however many durations are recorded.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos Duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Finds the bucket of a duration. Durations below the number of sub-buckets have a bucket each, and each
+     * power of two above that is split evenly into SUB_BUCKETS buckets.
+     *
+     * @param value Duration in nanoseconds.
+     * @return Index of bucket.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Finds the largest duration that falls in a bucket.
+     *
+     * @param index Index of bucket.
+     * @return Duration in nanoseconds.
+     */
+    static long highestIn(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations.
+     *
+     * @param percentile Percentile between 0 and 100.
+     * @return Duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            recorded += snapshot[i];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestIn(i), getMax());
+            }
+        }
+        return 0;
+    }
+}
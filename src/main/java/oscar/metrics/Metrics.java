@@ -0,0 +1,222 @@
+package oscar.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counts and times every command Oscar runs, split into parsing and executing, and every write to the save file.
+ * Stats are found by the class of the command, so recording one allocates nothing and takes no locks.
+ */
+public class Metrics implements MetricsMXBean {
+    private static final String UNKNOWN = "unknown";
+
+    private final ConcurrentSkipListMap<String, CommandStats> commands = new ConcurrentSkipListMap<>();
+    private final ClassValue<CommandStats> statsByClass = new ClassValue<>() {
+        @Override
+        protected CommandStats computeValue(Class<?> type) {
+            return commands.computeIfAbsent(nameOf(type), name -> new CommandStats());
+        }
+    };
+    private final LatencyHistogram journalWrites = new LatencyHistogram();
+    private final LatencyHistogram snapshots = new LatencyHistogram();
+    private volatile IntSupplier itemCount = () -> 0;
+    private volatile LongSupplier saveFileSize = () -> 0;
+
+    /**
+     * Names a command after its class, such as "todo" for TodoCommand.
+     *
+     * @param type Class of command.
+     * @return Name of command.
+     */
+    private static String nameOf(Class<?> type) {
+        String name = type.getSimpleName();
+        if (name.endsWith("Command")) {
+            name = name.substring(0, name.length() - "Command".length());
+        }
+        return name.toLowerCase();
+    }
+
+    /**
+     * Records a command that was parsed and executed.
+     *
+     * @param command Command run.
+     * @param parseNanos Time taken to parse the command.
+     * @param executeNanos Time taken to execute the command.
+     * @param isOk True if the command succeeded.
+     */
+    public void recordCommand(Object command, long parseNanos, long executeNanos, boolean isOk) {
+        CommandStats stats = statsByClass.get(command.getClass());
+        stats.parse.record(parseNanos);
+        stats.execute.record(executeNanos);
+        if (!isOk) {
+            stats.failures.increment();
+        }
+    }
+
+    /**
+     * Records input that could not be parsed as a command.
+     *
+     * @param parseNanos Time taken to reject the input.
+     */
+    public void recordUnknown(long parseNanos) {
+        CommandStats stats = commands.computeIfAbsent(UNKNOWN, name -> new CommandStats());
+        stats.parse.record(parseNanos);
+        stats.failures.increment();
+    }
+
+    /**
+     * Records a write and fsync of journal records.
+     *
+     * @param nanos Time taken.
+     */
+    public void recordJournalWrite(long nanos) {
+        journalWrites.record(nanos);
+    }
+
+    /**
+     * Records a snapshot written in full.
+     *
+     * @param nanos Time taken.
+     */
+    public void recordSnapshot(long nanos) {
+        snapshots.record(nanos);
+    }
+
+    /**
+     * Sets where the number of items and the size of the save file are read from.
+     *
+     * @param itemCount Number of items in the info list.
+     * @param saveFileSize Size of the save file in bytes.
+     */
+    public void track(IntSupplier itemCount, LongSupplier saveFileSize) {
+        this.itemCount = itemCount;
+        this.saveFileSize = saveFileSize;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, replacing metrics registered before.
+     * Metrics are only a diagnostic aid, so Oscar carries on without them if registration fails.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("oscar:type=Metrics");
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException | SecurityException e) {
+            // metrics are still shown by the stats command
+        }
+    }
+
+    @Override
+    public long getItemCount() {
+        return itemCount.getAsInt();
+    }
+
+    @Override
+    public long getSaveFileSize() {
+        return saveFileSize.getAsLong();
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        commands.forEach((name, stats) -> counts.put(name, stats.parse.getCount()));
+        counts.put("journal", journalWrites.getCount());
+        counts.put("snapshot", snapshots.getCount());
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        Map<String, Long> failures = new TreeMap<>();
+        commands.forEach((name, stats) -> failures.put(name, stats.failures.sum()));
+        return failures;
+    }
+
+    @Override
+    public Map<String, Double> getTotalMillis() {
+        return collect(histogram -> histogram.getTotal() / 1e6);
+    }
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return collect(histogram -> histogram.getPercentile(50) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return collect(histogram -> histogram.getPercentile(99) / 1e3);
+    }
+
+    @Override
+    public Map<String, Double> getMaxMicros() {
+        return collect(histogram -> histogram.getMax() / 1e3);
+    }
+
+    private Map<String, Double> collect(ToDoubleFunction<LatencyHistogram> value) {
+        Map<String, Double> values = new TreeMap<>();
+        commands.forEach((name, stats) -> {
+            values.put(name + ".parse", value.applyAsDouble(stats.parse));
+            if (stats.execute.getCount() > 0) {
+                values.put(name + ".execute", value.applyAsDouble(stats.execute));
+            }
+        });
+        values.put("journal", value.applyAsDouble(journalWrites));
+        values.put("snapshot", value.applyAsDouble(snapshots));
+        return values;
+    }
+
+    /**
+     * Summarises the metrics for the user.
+     *
+     * @return Number of items, size of save file, and counts and times of commands and writes.
+     */
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder("Here are Oscar's statistics since it started:\n");
+        report.append("Items: ").append(getItemCount()).append(", save file: ").append(getSaveFileSize())
+                .append(" bytes\n");
+        report.append("Times are in microseconds as p50 / p99 / max.\n");
+        commands.forEach((name, stats) -> {
+            long count = stats.parse.getCount();
+            report.append(name).append(": ").append(count).append(count == 1 ? " run, " : " runs, ")
+                    .append(stats.failures.sum()).append(" failed, parse ").append(format(stats.parse));
+            if (stats.execute.getCount() > 0) {
+                report.append(", execute ").append(format(stats.execute));
+            }
+            report.append("\n");
+        });
+        report.append("journal writes: ").append(journalWrites.getCount()).append(", ")
+                .append(format(journalWrites)).append("\n");
+        report.append("snapshots: ").append(snapshots.getCount()).append(", ").append(format(snapshots))
+                .append("\n");
+        return report.toString();
+    }
+
+    private static String format(LatencyHistogram histogram) {
+        return String.format("%.1f / %.1f / %.1f", histogram.getPercentile(50) / 1e3,
+                histogram.getPercentile(99) / 1e3, histogram.getMax() / 1e3);
+    }
+
+    /**
+     * Times and failures of one type of command.
+     */
+    private static class CommandStats {
+        private final LatencyHistogram parse = new LatencyHistogram();
+        private final LatencyHistogram execute = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+    }
+}
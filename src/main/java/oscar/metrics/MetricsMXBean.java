@@ -0,0 +1,28 @@
+package oscar.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics, registered as oscar:type=Metrics.
+ * Durations are keyed by command and phase, such as "todo.execute", and by "journal" and "snapshot" for writes
+ * to the save file.
+ */
+public interface MetricsMXBean {
+    long getItemCount();
+
+    long getSaveFileSize();
+
+    Map<String, Long> getCounts();
+
+    Map<String, Long> getFailures();
+
+    Map<String, Double> getTotalMillis();
+
+    Map<String, Double> getP50Micros();
+
+    Map<String, Double> getP99Micros();
+
+    Map<String, Double> getMaxMicros();
+
+    String getReport();
+}
@@ -0,0 +1,368 @@
+package oscar.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import oscar.Oscar;
+import oscar.command.ExitCommand;
+import oscar.exception.OscarException;
+
+/**
+ * Headless server that runs Oscar commands sent over local TCP connections.
+ * Each line a client sends is one command, and each command is answered with one line of JSON such as
+ * {"id":1,"ok":true,"response":"..."}, where id counts the commands sent on that connection. Clients may send
+ * many commands without waiting, and the responses come back in the same order.
+ * A single selector thread handles every connection, so idle connections cost only a little memory. Commands
+ * run on a pool of worker threads against one shared Oscar, one command at a time per connection.
+ */
+public class OscarServer implements Closeable {
+    public static final int DEFAULT_PORT = 7878;
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_LINE_LENGTH = 1 << 16; // bytes in a command before the connection is dropped
+    private static final int MAX_PENDING = 1024; // queued commands and responses before reading is paused
+
+    private final Oscar oscar;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService workers;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final ConcurrentLinkedQueue<Connection> responded = new ConcurrentLinkedQueue<>();
+    private volatile boolean isRunning = true;
+
+    /**
+     * Instantiates a server listening on an address.
+     *
+     * @param oscar Oscar that runs every command.
+     * @param address Address to listen on.
+     * @param workerCount Number of threads running commands.
+     * @throws IOException Unable to listen on the address.
+     */
+    public OscarServer(Oscar oscar, InetSocketAddress address, int workerCount) throws IOException {
+        this.oscar = oscar;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "oscar-server-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs Oscar as a server on the loopback address until the process is stopped.
+     *
+     * @param args Port to listen on, if not the default.
+     * @throws IOException Unable to listen on the port.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Oscar oscar = new Oscar(Oscar.FILE_PATH);
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        try (OscarServer server = new OscarServer(oscar, address, Runtime.getRuntime().availableProcessors())) {
+            System.out.println("Oscar is listening on " + address.getHostString() + ":" + server.getPort());
+            server.run();
+        }
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Accepts connections, reads commands and writes responses until the server is closed.
+     *
+     * @throws IOException Selector failed.
+     */
+    public void run() throws IOException {
+        while (isRunning) {
+            selector.select();
+            Connection connection;
+            while ((connection = responded.poll()) != null) {
+                connection.updateInterest();
+            }
+            for (SelectionKey key : selector.selectedKeys()) {
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    accept();
+                    continue;
+                }
+                connection = (Connection) key.attachment();
+                try {
+                    if (key.isReadable()) {
+                        connection.read();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.write();
+                    }
+                    if (key.isValid()) {
+                        connection.updateInterest();
+                    }
+                } catch (IOException e) {
+                    connection.close();
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    /**
+     * Stops the server and closes every connection.
+     */
+    @Override
+    public void close() {
+        isRunning = false;
+        selector.wakeup();
+        workers.shutdown();
+    }
+
+    /**
+     * Encodes a response as one line of JSON.
+     *
+     * @param id Number of the command on its connection.
+     * @param isOk True if the command succeeded.
+     * @param response Response of Oscar.
+     * @return Encoded response ending with a newline.
+     */
+    static String toJson(long id, boolean isOk, String response) {
+        StringBuilder json = new StringBuilder(response.length() + 48);
+        json.append("{\"id\":").append(id).append(",\"ok\":").append(isOk).append(",\"response\":\"");
+        for (int i = 0; i < response.length(); i++) {
+            char c = response.charAt(i);
+            switch (c) {
+            case '"':
+                json.append("\\\"");
+                break;
+            case '\\':
+                json.append("\\\\");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        return json.append("\"}\n").toString();
+    }
+
+    /**
+     * State of one client connection. Reads, writes and interest changes happen on the selector thread, while
+     * a worker runs the queued commands in order and hands back the responses.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private byte[] partialLine;
+        private int partialLength;
+        private final ArrayDeque<String> commands = new ArrayDeque<>();
+        private final ArrayDeque<ByteBuffer> responses = new ArrayDeque<>();
+        private long nextId;
+        private boolean isBusy;
+        private boolean isClosing;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads what the client has sent and queues every complete line as a command.
+         *
+         * @throws IOException Connection failed.
+         */
+        void read() throws IOException {
+            readBuffer.clear();
+            int count = channel.read(readBuffer);
+            if (count < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            int lineStart = 0;
+            for (int i = 0; i < readBuffer.limit(); i++) {
+                if (readBuffer.get(i) == '\n') {
+                    appendPartial(lineStart, i);
+                    queue(new String(partialLine, 0, partialLength, StandardCharsets.UTF_8));
+                    partialLength = 0;
+                    lineStart = i + 1;
+                }
+            }
+            appendPartial(lineStart, readBuffer.limit());
+            if (partialLength > MAX_LINE_LENGTH) {
+                partialLine = null;
+                partialLength = 0;
+                respond(toJson(0, false, "Sorry! The command is too long.\n"), true);
+            }
+        }
+
+        private void appendPartial(int from, int to) {
+            int length = to - from;
+            if (length == 0) {
+                return;
+            }
+            if (partialLine == null || partialLength + length > partialLine.length) {
+                int capacity = Math.max(partialLength + length, partialLine == null ? 256 : partialLine.length * 2);
+                partialLine = partialLine == null ? new byte[capacity] : Arrays.copyOf(partialLine, capacity);
+            }
+            ByteBuffer source = readBuffer.duplicate();
+            source.position(from).limit(to);
+            source.get(partialLine, partialLength, length);
+            partialLength += length;
+        }
+
+        private void queue(String line) {
+            String command = line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+            if (command.isBlank()) {
+                return;
+            }
+            synchronized (this) {
+                if (isClosing) {
+                    return;
+                }
+                commands.addLast(command);
+                if (!isBusy) {
+                    isBusy = true;
+                    workers.execute(this::runCommands);
+                }
+            }
+        }
+
+        /**
+         * Runs queued commands one at a time on a worker thread until none are left.
+         */
+        private void runCommands() {
+            while (true) {
+                String command;
+                long id;
+                synchronized (this) {
+                    command = commands.pollFirst();
+                    if (command == null || isClosing) {
+                        isBusy = false;
+                        return;
+                    }
+                    id = ++nextId;
+                }
+                String response;
+                boolean isOk;
+                try {
+                    response = oscar.respond(command);
+                    isOk = true;
+                } catch (OscarException e) {
+                    response = e.getMessage();
+                    isOk = false;
+                } catch (RuntimeException e) {
+                    response = "Sorry! Oscar could not run this command.\n";
+                    isOk = false;
+                }
+                respond(toJson(id, isOk, response), isOk && response.equals(ExitCommand.EXIT_MESSAGE));
+            }
+        }
+
+        /**
+         * Queues a response to be written and wakes the selector to write it.
+         *
+         * @param json Encoded response.
+         * @param isLast True if the connection closes once the response is written.
+         */
+        private void respond(String json, boolean isLast) {
+            synchronized (this) {
+                responses.addLast(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+                isClosing |= isLast;
+            }
+            responded.add(this);
+            selector.wakeup();
+        }
+
+        /**
+         * Writes as many queued responses as the connection takes without blocking.
+         *
+         * @throws IOException Connection failed.
+         */
+        void write() throws IOException {
+            synchronized (this) {
+                ByteBuffer response;
+                while ((response = responses.peekFirst()) != null) {
+                    channel.write(response);
+                    if (response.hasRemaining()) {
+                        return;
+                    }
+                    responses.pollFirst();
+                }
+                if (isClosing) {
+                    close();
+                }
+            }
+        }
+
+        /**
+         * Reads only while the backlog is small, and writes while responses are waiting.
+         */
+        void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            synchronized (this) {
+                int backlog = commands.size() + responses.size();
+                int ops = (backlog < MAX_PENDING && !isClosing ? SelectionKey.OP_READ : 0)
+                        | (responses.isEmpty() ? 0 : SelectionKey.OP_WRITE);
+                key.interestOps(ops);
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                isClosing = true;
+                commands.clear();
+                responses.clear();
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // connection is already gone
+            }
+        }
+    }
+}
@@ -1,12 +1,10 @@
 package oscar.ui;
 
-import java.io.IOException;
 import java.util.Collections;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
@@ -15,25 +13,38 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 
 /**
- * An example of a custom control using FXML.
- * This control represents a dialog box consisting of an ImageView to represent the speaker's face and a label
- * containing text from the speaker.
+ * A custom control that represents a dialog box consisting of an ImageView to represent the speaker's face and
+ * a label containing text from the speaker. The nodes are built in code rather than loaded from FXML, since a
+ * dialog box is built for every cell of the conversation and parsing a template each time costs more than
+ * building the two nodes.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final double PICTURE_SIZE = 99.0;
+
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+
+    private boolean isFlipped;
+
+    /**
+     * Instantiates an empty dialog box with the picture on the right.
+     */
+    public DialogBox() {
+        dialog.setWrapText(true);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxHeight(Double.MAX_VALUE);
+        setMaxWidth(Double.MAX_VALUE);
+        setPrefWidth(40.0);
+        setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+        getChildren().addAll(dialog, displayPicture);
+    }
 
     private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        this();
         dialog.setText(text);
         displayPicture.setImage(img);
     }
@@ -45,7 +56,36 @@ public class DialogBox extends HBox {
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         Collections.reverse(tmp);
         getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
+        isFlipped = !isFlipped;
+        setAlignment(isFlipped ? Pos.TOP_LEFT : Pos.TOP_RIGHT);
+    }
+
+    /**
+     * Shows a message from the user, with the picture on the right.
+     *
+     * @param text Text of message.
+     * @param img Picture of user.
+     */
+    void setUserDialog(String text, Image img) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (isFlipped) {
+            flip();
+        }
+    }
+
+    /**
+     * Shows a message from Oscar, with the picture on the left.
+     *
+     * @param text Text of message.
+     * @param img Picture of Oscar.
+     */
+    void setOscarDialog(String text, Image img) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        if (!isFlipped) {
+            flip();
+        }
     }
 
     public static DialogBox getUserDialog(String text, Image img) {
@@ -58,4 +98,3 @@ public class DialogBox extends HBox {
         return db;
     }
 }
-
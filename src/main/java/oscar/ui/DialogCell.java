@@ -0,0 +1,48 @@
+package oscar.ui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * List cell that shows a message in a dialog box. The list view only creates enough cells to fill the
+ * visible area and reuses them as the conversation scrolls, so each dialog box is built once per cell
+ * rather than once per message.
+ */
+public class DialogCell extends ListCell<Message> {
+    private static final double SCROLL_BAR_WIDTH = 20.0;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image oscarImage;
+
+    /**
+     * Instantiates a cell whose dialog box wraps its text to the width of the list view.
+     *
+     * @param listView List view the cell belongs to.
+     * @param userImage Picture shown next to messages from the user.
+     * @param oscarImage Picture shown next to messages from Oscar.
+     */
+    public DialogCell(ListView<Message> listView, Image userImage, Image oscarImage) {
+        this.userImage = userImage;
+        this.oscarImage = oscarImage;
+        setPrefWidth(0); // let the list view decide the width so that long messages wrap
+        dialogBox.maxWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_WIDTH));
+        setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        if (message.isUser()) {
+            dialogBox.setUserDialog(message.getText(), userImage);
+        } else {
+            dialogBox.setOscarDialog(message.getText(), oscarImage);
+        }
+        setGraphic(dialogBox);
+    }
+}
@@ -1,62 +1,142 @@
 package oscar.ui;
 
 import java.awt.event.ActionListener;
+import java.util.ArrayDeque;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.swing.Timer;
 
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import oscar.Oscar;
+import oscar.command.Command;
 import oscar.command.ExitCommand;
 
 /**
  * Controller for MainWindow. Provides the layout for the other controls.
+ * The conversation is shown in a list view that only lays out the visible messages, and only the latest
+ * messages are kept. The number kept can be changed with the oscar.history system property.
+ * Commands run one at a time on a worker thread so that the window stays responsive. Each reply is shown as
+ * pending until its command finishes, and replies arrive in the order the commands were entered.
+ * Oscar itself is loaded on the worker thread after the window is shown, so commands entered while the save
+ * file is read wait behind it. The pictures are decoded once, in the background, and shared by every cell.
  */
 public class MainWindow extends AnchorPane {
+    private static final int HISTORY_LIMIT = Math.max(Integer.getInteger("oscar.history", 1000), 1);
+    private static final String PENDING_MESSAGE = "Oscar is working on it... (press Esc to cancel)\n";
+    private static final String LOADING_MESSAGE = "Oscar is loading your infos...\n";
+    private static final Image USER_IMAGE = loadImage("/images/user.png");
+    private static final Image OSCAR_IMAGE = loadImage("/images/oscar.png");
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> dialogList;
     @FXML
     private TextField userInput;
 
-    private Oscar oscar;
+    private final ObservableList<Message> history = FXCollections.observableArrayList();
+    private final ArrayDeque<PendingReply> pendingReplies = new ArrayDeque<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "oscar-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Oscar oscar; // only used on the worker thread
 
-    private final Image userImage = new Image(Objects.requireNonNull(
-            this.getClass().getResourceAsStream("/images/user.png")));
-    private final Image oscarImage = new Image(Objects.requireNonNull(
-            this.getClass().getResourceAsStream("/images/oscar.png")));
+    private static Image loadImage(String path) {
+        return new Image(Objects.requireNonNull(MainWindow.class.getResource(path)).toExternalForm(), true);
+    }
 
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(history);
+        dialogList.setCellFactory(list -> new DialogCell(list, USER_IMAGE, OSCAR_IMAGE));
+        userInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE) {
+                cancelPendingReplies();
+            }
+        });
     }
 
-    public void setOscar(Oscar o) {
-        oscar = o;
-        dialogContainer.getChildren().addAll(
-                DialogBox.getOscarDialog(oscar.greet(), oscarImage)
-        );
+    /**
+     * Loads Oscar on the worker thread, showing a loading message until Oscar greets the user.
+     *
+     * @param loader Source of Oscar, such as one that reads the save file.
+     * @return Future completed on the JavaFX thread once Oscar has greeted the user.
+     */
+    public CompletableFuture<Void> loadOscar(Supplier<Oscar> loader) {
+        Message loading = new Message(LOADING_MESSAGE, false);
+        addMessages(loading);
+        CompletableFuture<Void> loaded = new CompletableFuture<>();
+        executor.execute(() -> {
+            oscar = loader.get();
+            String greeting = oscar.greet();
+            Platform.runLater(() -> {
+                int index = history.lastIndexOf(loading);
+                if (index >= 0) {
+                    history.set(index, new Message(greeting, false));
+                }
+                loaded.complete(null);
+            });
+        });
+        return loaded;
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Oscar's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Appends messages to the conversation, drops the oldest messages past the history limit, and scrolls to
+     * the latest message.
+     *
+     * @param messages Messages to append.
+     */
+    private void addMessages(Message... messages) {
+        history.addAll(messages);
+        if (history.size() > HISTORY_LIMIT) {
+            history.remove(0, history.size() - HISTORY_LIMIT);
+        }
+        dialogList.scrollTo(history.size() - 1);
+    }
+
+    /**
+     * Appends the user input and a pending reply to the conversation, and runs the command on the worker thread.
+     * Clears the user input straight away so that the next command can be typed.
      */
     @FXML
-    private void handleUserInput() throws InterruptedException {
+    private void handleUserInput() {
         String input = userInput.getText();
-        String response = oscar.getResponse(input);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getOscarDialog(response, oscarImage)
-        );
         userInput.clear();
+        PendingReply reply = new PendingReply();
+        addMessages(new Message(input, true), reply.message);
+        pendingReplies.addLast(reply);
+        executor.execute(() -> {
+            String response = reply.run(onParsed -> oscar.getResponse(input, onParsed));
+            Platform.runLater(() -> showReply(reply, response));
+        });
+    }
+
+    /**
+     * Replaces a pending reply with Oscar's response, and closes Oscar after a short delay if it was asked to exit.
+     *
+     * @param reply Pending reply.
+     * @param response Response of Oscar.
+     */
+    private void showReply(PendingReply reply, String response) {
+        pendingReplies.remove(reply);
+        int index = history.lastIndexOf(reply.message);
+        if (index >= 0) {
+            history.set(index, new Message(response, false));
+        }
         if (response.equals(ExitCommand.EXIT_MESSAGE)) {
             int delay = 3000; // delay of Oscar closing in milliseconds
             ActionListener taskPerformer = event -> Platform.exit();
@@ -65,4 +145,68 @@ public class MainWindow extends AnchorPane {
             timer.start();
         }
     }
+
+    /**
+     * Cancels every command that has not finished. Commands still waiting are skipped, and a running query is
+     * interrupted and stops at its next check. A running command that changes the list is left to finish.
+     */
+    private void cancelPendingReplies() {
+        for (PendingReply reply : pendingReplies) {
+            reply.cancel();
+        }
+    }
+
+    /**
+     * Placeholder for Oscar's reply to a command that is still running or waiting to run.
+     */
+    private static class PendingReply {
+        private final Message message = new Message(PENDING_MESSAGE, false);
+        private boolean isCancelled;
+        private Thread runner; // only set while a read-only command runs, since only those may be interrupted
+
+        /**
+         * Runs the command on the current thread unless it has been cancelled before it started.
+         *
+         * @param command Command to run, given a callback to call with the parsed command before it runs.
+         * @return Response to the command.
+         */
+        String run(Function<Consumer<Command>, String> command) {
+            synchronized (this) {
+                if (isCancelled) {
+                    return Oscar.CANCELLED_MESSAGE;
+                }
+            }
+            try {
+                return command.apply(this::start);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    Thread.interrupted(); // a late cancel must not interrupt the next command
+                }
+            }
+        }
+
+        /**
+         * Lets the parsed command start, recording the current thread as interruptible if the command only
+         * reads the list.
+         *
+         * @param command Parsed command.
+         * @throws CancellationException The reply was cancelled before the command started.
+         */
+        private synchronized void start(Command command) {
+            if (isCancelled) {
+                throw new CancellationException("Command was cancelled before it started");
+            }
+            if (command.isReadOnly()) {
+                runner = Thread.currentThread();
+            }
+        }
+
+        synchronized void cancel() {
+            isCancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
 }
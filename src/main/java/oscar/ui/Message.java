@@ -0,0 +1,28 @@
+package oscar.ui;
+
+/**
+ * One message in the conversation, either typed by the user or replied by Oscar.
+ */
+public class Message {
+    private final String text;
+    private final boolean isUser;
+
+    /**
+     * Instantiates a message.
+     *
+     * @param text Text of message.
+     * @param isUser True if the user typed the message, false if Oscar replied with it.
+     */
+    public Message(String text, boolean isUser) {
+        this.text = text;
+        this.isUser = isUser;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isUser() {
+        return isUser;
+    }
+}
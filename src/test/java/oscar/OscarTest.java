@@ -0,0 +1,106 @@
+package oscar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OscarTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void getResponse_concurrentWritersAndReaders_allChangesKept() throws Exception {
+        String path = tempDir.resolve("infolist").toString();
+        Oscar oscar = new Oscar(path);
+        int writers = 4;
+        int tasksPerWriter = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(writers * 2);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        List<Future<?>> writes = new ArrayList<>();
+        List<Future<?>> reads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            writes.add(pool.submit(() -> {
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    oscar.getResponse("todo task " + writer + "-" + i);
+                    oscar.getResponse(i % 2 == 0 ? "mark 1" : "unmark 1");
+                    if (i % 10 == 0) {
+                        oscar.getResponse("note scratch");
+                        oscar.getResponse("find scratch --size 1");
+                    }
+                }
+            }));
+            reads.add(pool.submit(() -> {
+                while (isWriting.get()) {
+                    assertTrue(oscar.getResponse("find task " + writer).startsWith("Here are the matching infos"));
+                    assertTrue(oscar.getResponse("list --page 1 --size 5").startsWith("Here are the items"));
+                }
+            }));
+        }
+        for (Future<?> write : writes) {
+            write.get();
+        }
+        isWriting.set(false);
+        for (Future<?> read : reads) {
+            read.get();
+        }
+        pool.shutdown();
+
+        String list = oscar.getResponse("list");
+        for (int w = 0; w < writers; w++) {
+            for (int i = 0; i < tasksPerWriter; i++) {
+                assertTrue(list.contains("task " + w + "-" + i + "\n"));
+            }
+        }
+        assertEquals(writers * tasksPerWriter + writers * tasksPerWriter / 10 + 1, list.split("\n").length);
+        oscar.getResponse("bye");
+        assertEquals(list, new Oscar(path).getResponse("list"));
+    }
+
+    @Test
+    public void getResponse_stats_commandsCounted() throws Exception {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        oscar.getResponse("todo read book");
+        oscar.getResponse("todo return book");
+        oscar.getResponse("mark 3");
+        oscar.getResponse("hello");
+        String report = oscar.getResponse("stats");
+        assertTrue(report.startsWith("Here are Oscar's statistics since it started:\nItems: 2, save file: "), report);
+        assertTrue(report.contains("\ntodo: 2 runs, 0 failed, parse "), report);
+        assertTrue(report.contains("\nmark: 1 run, 1 failed, parse "), report);
+        assertTrue(report.contains("\nunknown: 1 run, 1 failed, parse "), report);
+        assertTrue(oscar.getResponse("stats").contains("\nstats: 1 run, 0 failed, parse "));
+    }
+
+    @Test
+    public void getResponse_interruptedQuery_cancelledMessage() {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        oscar.getResponse("todo read book");
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(Oscar.CANCELLED_MESSAGE, oscar.getResponse("find book"));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void getResponse_cancelledOnceParsed_commandNotRun() {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        assertEquals(Oscar.CANCELLED_MESSAGE, oscar.getResponse("todo read book", command -> {
+            throw new CancellationException();
+        }));
+        assertEquals("Here are the items in your list:\n\n", oscar.getResponse("list"));
+    }
+}
@@ -0,0 +1,74 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+public class BatchCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_validCommands_allPersisted() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        String response = new BatchCommand(List.of("todo read book", "note chapter 3", "mark 1"))
+                .execute(infos, storage);
+        assertTrue(response.startsWith("Oscar has run 3 commands"));
+        assertEquals(2, infos.getSize());
+        storage.flush();
+        assertEquals(infos.list(), new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+
+    @Test
+    public void execute_invalidCommand_rolledBack() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new TodoCommand("return book").execute(infos, storage);
+        String before = infos.list();
+        try {
+            new BatchCommand(List.of("todo join cca", "mark 1", "delete 2", "delete 5")).execute(infos, storage);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! Command 4 of the batch failed, so no changes were made.\n"
+                    + "Sorry! Info number is too large.\n", e.getMessage());
+        }
+        assertEquals(before, infos.list());
+        storage.flush();
+        assertEquals(before, new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+
+    @Test
+    public void execute_uncheckedExceptionInCommand_rolledBackAndLaterChangesKept() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new TodoCommand("zero").execute(infos, storage);
+        Thread.currentThread().interrupt(); // cancels the find in the middle of the batch
+        try {
+            assertThrows(CancellationException.class, () -> new BatchCommand(List.of("todo one", "find one",
+                    "todo two")).execute(infos, storage));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals("Here are the items in your list:\n1. [T][ ] zero\n\n", infos.list());
+
+        new TodoCommand("after").execute(infos, storage);
+        storage.flush();
+        ItemList loaded = new Storage(tempDir.resolve("infolist").toString()).load();
+        assertEquals(infos.list(), loaded.list());
+        assertEquals("Oscar has undone the change that added 1 info.\nYou now have 1 item in the list.\n",
+                new UndoCommand().execute(infos, storage));
+    }
+}
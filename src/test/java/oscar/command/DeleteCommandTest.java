@@ -0,0 +1,66 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+public class DeleteCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_rangesAndNumbers_deletedAndReplayed() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        for (int i = 1; i <= 8; i++) {
+            new TodoCommand("task " + i).execute(infos, storage);
+        }
+        new DeleteCommand("8").execute(infos, storage);
+        assertEquals("Oscar has removed 4 infos.\nYou now have 3 items in the list.\n",
+                new DeleteCommand("2-4, 6").execute(infos, storage));
+        assertEquals("Here are the items in your list:\n1. [T][ ] task 1\n2. [T][ ] task 5\n3. [T][ ] task 7\n\n",
+                infos.list());
+        storage.flush();
+        assertEquals(infos.list(), new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+
+    @Test
+    public void execute_doneAndMatching_filteredInfosDeleted() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        infos.add(new TodoTask("return book"));
+        infos.add(new Note("book list"));
+        infos.add(new TodoTask("buy milk"));
+        new MarkCommand("1,4").execute(infos, storage);
+        assertEquals("Oscar has removed 2 infos.\nYou now have 2 items in the list.\n",
+                new DeleteCommand("--done").execute(infos, storage));
+        assertEquals("Oscar has removed 1 info.\nYou now have 1 item in the list.\n",
+                new DeleteCommand("--matching list").execute(infos, storage));
+        assertEquals("Here are the items in your list:\n1. [T][ ] return book\n\n", infos.list());
+    }
+
+    @Test
+    public void execute_rangePastEnd_nothingDeleted() {
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        infos.add(new TodoTask("return book"));
+        try {
+            new DeleteCommand("1-3").execute(infos, new Storage(tempDir.resolve("infolist").toString()));
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! Info number is too large.\n", e.getMessage());
+        }
+        assertEquals(2, infos.getSize());
+    }
+}
@@ -0,0 +1,89 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import oscar.essential.ItemList;
+import oscar.exception.OscarException;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+public class FindCommandTest {
+    private ItemList createInfos() {
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read Book"));
+        infos.add(new TodoTask("return book"));
+        infos.add(new Note("join cca"));
+        infos.add(new TodoTask("buy milk"));
+        return infos;
+    }
+
+    @Test
+    public void execute_ignoreCaseWithOr_matchesListed() throws OscarException {
+        assertEquals("Here are the matching infos in your list:\n"
+                + "1. [T][ ] read Book\n"
+                + "2. [T][ ] return book\n"
+                + "3. [N] join cca\n\n",
+                new FindCommand("--operators --ignore-case BOOK OR cca").execute(createInfos(), null));
+    }
+
+    @Test
+    public void execute_regexWithAnd_matchesListed() throws OscarException {
+        assertEquals("Here are the matching infos in your list:\n"
+                + "2. [T][ ] return book\n\n",
+                new FindCommand("--regex --operators ^re AND b[o]+k$").execute(createInfos(), null));
+    }
+
+    @Test
+    public void execute_operatorsWithoutOption_foundAsPartOfKeyword() throws OscarException {
+        ItemList infos = createInfos();
+        infos.add(new Note("rock AND roll"));
+        infos.add(new Note("rock music"));
+        assertEquals("Here are the matching infos in your list:\n"
+                + "5. [N] rock AND roll\n\n", new FindCommand("rock AND roll").execute(infos, null));
+        assertEquals("Here are the matching infos in your list:\n"
+                + "5. [N] rock AND roll\n\n", new FindCommand("--ignore-case ROCK and ROLL").execute(infos, null));
+        assertEquals("Here are the matching infos in your list:\n"
+                + "5. [N] rock AND roll\n"
+                + "6. [N] rock music\n\n", new FindCommand("--operators rock AND roll OR music").execute(infos, null));
+    }
+
+    @Test
+    public void execute_fuzzy_matchesWithinTwoEditsListed() throws OscarException {
+        assertEquals("Here are the matching infos in your list:\n"
+                + "2. [T][ ] return book\n\n", new FindCommand("--fuzzy retrun").execute(createInfos(), null));
+        assertEquals("Here are the matching infos in your list:\n\n",
+                new FindCommand("--fuzzy rtrn").execute(createInfos(), null));
+    }
+
+    @Test
+    public void execute_invalidRegex_exceptionThrown() {
+        try {
+            new FindCommand("--regex b[o").execute(createInfos(), null);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! b[o is not a valid regular expression.\n", e.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_largeListInParallel_sameAsInOrder() throws Exception {
+        ItemList infos = new ItemList();
+        for (int i = 0; i < 100_000; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+        }
+        infos.delete(5);
+        FindCommand command = new FindCommand("--operators --fuzzy chaptr 1234 OR chapter 9999");
+        String expected = command.execute(infos, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, pool.submit(() -> command.execute(infos, null)).get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import oscar.essential.ItemList;
+import oscar.exception.OscarException;
+import oscar.item.DeadlineTask;
+import oscar.item.TodoTask;
+
+public class ListCommandTest {
+    @Test
+    public void execute_secondPage_itemsOnPageListed() throws OscarException {
+        ItemList infos = new ItemList();
+        for (int i = 1; i <= 5; i++) {
+            infos.add(new TodoTask("task " + i));
+        }
+        infos.delete(0);
+        assertEquals("Here are the items in your list (page 2 of 2):\n"
+                + "4. [T][ ] task 5\n\n", new ListCommand("--size 3 --page 2").execute(infos, null));
+    }
+
+    @Test
+    public void execute_afterMarkAndUnmark_doneStateShown() throws OscarException {
+        ItemList infos = new ItemList();
+        infos.add(new DeadlineTask("submit report", LocalDateTime.of(2023, 9, 11, 23, 59)));
+        assertEquals("Here are the items in your list:\n"
+                + "1. [D][ ] submit report (by: Sep 11 2023 11:59PM)\n\n", infos.list());
+        infos.mark(0);
+        assertEquals("Here are the items in your list:\n"
+                + "1. [D][X] submit report (by: Sep 11 2023 11:59PM)\n\n", new ListCommand("").execute(infos, null));
+        infos.unmark(0);
+        assertEquals("Here are the items in your list:\n"
+                + "1. [D][ ] submit report (by: Sep 11 2023 11:59PM)\n\n", new ListCommand("").execute(infos, null));
+    }
+
+    @Test
+    public void execute_pagePastEnd_exceptionThrown() {
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("task"));
+        try {
+            new ListCommand("--page 2").execute(infos, null);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! There is only 1 page in the list.\n", e.getMessage());
+        }
+    }
+
+    @Test
+    public void execute_argumentWithoutPagingOptions_everyItemListed() throws OscarException {
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("task"));
+        assertEquals(infos.list(), new ListCommand("foo").execute(infos, null));
+    }
+}
@@ -0,0 +1,41 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+public class MarkCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_selection_tasksMarkedAndReplayed() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        infos.add(new Note("book list"));
+        infos.add(new TodoTask("return book"));
+        infos.add(new TodoTask("buy milk"));
+        storage.save(infos);
+        new MarkCommand("3").execute(infos, storage);
+        assertEquals("Nice! Oscar has marked 2 tasks as done.\n"
+                + "2 selected infos were skipped as notes or tasks already done.\n",
+                new MarkCommand("1-3,4").execute(infos, storage));
+        assertEquals("Oscar has marked 1 task as not done yet.\n"
+                + "1 selected info was skipped as notes or tasks not done.\n",
+                new UnmarkCommand("1,2").execute(infos, storage));
+        storage.flush();
+        assertEquals("Here are the items in your list:\n1. [T][ ] read book\n2. [N] book list\n"
+                + "3. [T][X] return book\n4. [T][X] buy milk\n\n",
+                new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+}
@@ -0,0 +1,45 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+public class OverlappingCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_deadlinesAndEvents_listedInTimeOrder() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new EventCommand("hackathon /from 2023-09-30 0900 /to 2023-10-02 1800").execute(infos, storage);
+        new DeadlineCommand("submit essay /by 2023-10-01 2359").execute(infos, storage);
+        new TodoCommand("read book").execute(infos, storage);
+        new EventCommand("lecture /from 2023-10-03 1000 /to 2023-10-03 1200").execute(infos, storage);
+        new DeleteCommand("3").execute(infos, storage);
+        assertEquals("Here are the matching infos in your list:\n"
+                + "1. [E][ ] hackathon (from: Sep 30 2023 9:00AM to: Oct 2 2023 6:00PM)\n"
+                + "2. [D][ ] submit essay (by: Oct 1 2023 11:59PM)\n\n",
+                new OverlappingCommand("/from 2023-10-01 0000 /to 2023-10-02 0000").execute(infos, storage));
+        assertEquals("Here are the matching infos in your list:\n\n",
+                new DueCommand("before 2023-10-01 2359").execute(infos, storage));
+    }
+
+    @Test
+    public void execute_endBeforeStart_exceptionThrown() {
+        try {
+            new OverlappingCommand("/from 2023-10-02 0000 /to 2023-10-01 0000").execute(new ItemList(), null);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! End date and time must be after start date and time.\n", e.getMessage());
+        }
+    }
+}
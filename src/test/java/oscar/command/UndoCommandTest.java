@@ -0,0 +1,78 @@
+package oscar.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.essential.ItemList;
+import oscar.essential.Storage;
+import oscar.exception.OscarException;
+
+public class UndoCommandTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void execute_deleteAndMarkUndone_changesRevertedAndReplayed() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new TodoCommand("read book").execute(infos, storage);
+        new TodoCommand("return book").execute(infos, storage);
+        new TodoCommand("buy milk").execute(infos, storage);
+        String added = infos.list();
+        new MarkCommand("1,3").execute(infos, storage);
+        new DeleteCommand("2").execute(infos, storage);
+
+        assertEquals("Oscar has undone the change that deleted 1 info.\nYou now have 3 items in the list.\n",
+                new UndoCommand().execute(infos, storage));
+        assertEquals("Oscar has undone the change that marked 2 tasks as done.\n"
+                + "You now have 3 items in the list.\n", new UndoCommand().execute(infos, storage));
+        assertEquals(added, infos.list());
+        assertEquals("Oscar has redone the change that marked 2 tasks as done.\n"
+                + "You now have 3 items in the list.\n", new RedoCommand().execute(infos, storage));
+        storage.flush();
+        assertEquals(infos.list(), new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+
+    @Test
+    public void execute_batchUndone_wholeBatchReverted() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new TodoCommand("return book").execute(infos, storage);
+        String before = infos.list();
+        new BatchCommand(List.of("todo join cca", "note chapter 3", "mark 1", "delete 2")).execute(infos, storage);
+
+        assertEquals("Oscar has undone the change that added 2 infos and deleted 1 info and marked 1 task as done.\n"
+                + "You now have 1 item in the list.\n", new UndoCommand().execute(infos, storage));
+        assertEquals(before, infos.list());
+        storage.flush();
+        assertEquals(before, new Storage(tempDir.resolve("infolist").toString()).load().list());
+    }
+
+    @Test
+    public void execute_newChangeAfterUndo_nothingToRedo() throws OscarException {
+        Storage storage = new Storage(tempDir.resolve("infolist").toString());
+        ItemList infos = new ItemList();
+        new TodoCommand("read book").execute(infos, storage);
+        new UndoCommand().execute(infos, storage);
+        new TodoCommand("return book").execute(infos, storage);
+        try {
+            new RedoCommand().execute(infos, storage);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! There are no changes to redo.\n", e.getMessage());
+        }
+        new UndoCommand().execute(infos, storage);
+        try {
+            new UndoCommand().execute(infos, storage);
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! There are no changes to undo.\n", e.getMessage());
+        }
+    }
+}
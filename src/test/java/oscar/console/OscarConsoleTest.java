@@ -0,0 +1,46 @@
+package oscar.console;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.Oscar;
+
+public class OscarConsoleTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void run_pipedCommands_respondedUntilBye() throws IOException {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] input = "todo read book\r\n\nmark 1\nhello\nbye\ntodo join cca\n".getBytes(StandardCharsets.UTF_8);
+        new OscarConsole(oscar, Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(out))
+                .run();
+        assertEquals(oscar.greet() + "\n"
+                + "Oscar has added:\n[T][ ] read book\n\n"
+                + "Nice! Oscar has marked this task as done:\n[T][X] read book\n\n"
+                + "Sorry! Oscar does not recognise this command\n\n"
+                + "Goodbye for now. Oscar hopes to see you again soon!\n\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void run_lastLineLongerThanBufferWithoutBreak_runAsOneCommand() throws IOException {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] input = ("todo \u00e9t\u00e9\nnote " + "\u00e9".repeat(100_000)).getBytes(StandardCharsets.UTF_8);
+        new OscarConsole(oscar, Channels.newChannel(new ByteArrayInputStream(input)), Channels.newChannel(out))
+                .run();
+        assertEquals(oscar.greet() + "\n" + "Oscar has added:\n[T][ ] \u00e9t\u00e9\n\n"
+                + "Sorry! The description of a note cannot exceed 200 characters.\n\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package oscar.essential;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class FenwickTreeTest {
+    private static int countLive(boolean[] live, int before) {
+        int count = 0;
+        for (int slot = 0; slot < before; slot++) {
+            count += live[slot] ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static void assertMatches(boolean[] live, int size, FenwickTree tree) {
+        for (int slot = 0; slot <= size; slot++) {
+            int position = countLive(live, slot);
+            assertEquals(position, tree.countBefore(slot));
+            if (slot < size && live[slot]) {
+                assertEquals(slot, tree.find(position));
+            }
+        }
+    }
+
+    @Test
+    public void countBeforeAndFind_interleavedDeletesAndRevivals_sameAsCounting() {
+        Random random = new Random(7);
+        int size = 300;
+        boolean[] live = new boolean[size];
+        Arrays.fill(live, true);
+        FenwickTree tree = new FenwickTree(size);
+        for (int round = 0; round < 500; round++) {
+            int slot = random.nextInt(size);
+            tree.add(slot, live[slot] ? -1 : 1);
+            live[slot] = !live[slot];
+            if (round % 50 == 0) {
+                assertMatches(live, size, tree);
+            }
+        }
+        assertMatches(live, size, tree);
+    }
+
+    @Test
+    public void append_afterDeletesPastInitialCapacity_newSlotsLive() {
+        boolean[] live = new boolean[40];
+        Arrays.fill(live, 0, 5, true);
+        FenwickTree tree = new FenwickTree(5);
+        tree.add(1, -1);
+        tree.add(3, -1);
+        live[1] = false;
+        live[3] = false;
+        for (int size = 5; size < 40; size++) {
+            tree.append();
+            live[size] = true;
+            if (size % 7 == 0) {
+                tree.add(size - 1, -1);
+                live[size - 1] = false;
+            }
+        }
+        assertMatches(live, 40, tree);
+    }
+
+    @Test
+    public void copy_originalChangedAfterwards_copyUnchanged() {
+        FenwickTree tree = new FenwickTree(20);
+        tree.add(4, -1);
+        FenwickTree copy = tree.copy();
+        tree.add(10, -1);
+        tree.append();
+        assertEquals(19, copy.countBefore(20));
+        assertEquals(11, copy.find(10));
+        assertEquals(19, tree.countBefore(21));
+        assertEquals(12, tree.find(10));
+    }
+}
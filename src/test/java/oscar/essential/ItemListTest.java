@@ -0,0 +1,101 @@
+package oscar.essential;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import oscar.exception.OscarException;
+import oscar.item.TodoTask;
+
+public class ItemListTest {
+    private static void assertSameItems(List<String> expected, ItemList infos) {
+        assertEquals(expected.size(), infos.getSize());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), infos.get(i).getDescription());
+        }
+    }
+
+    @Test
+    public void delete_interleavedWithAdds_positionsAndIdsMatchList() {
+        Random random = new Random(3);
+        ItemList infos = new ItemList();
+        List<String> descriptions = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            if (random.nextInt(3) > 0 || descriptions.isEmpty()) {
+                String description = "task " + round;
+                infos.add(new TodoTask(description));
+                descriptions.add(description);
+                ids.add(infos.getId(infos.getSize() - 1));
+            } else {
+                int index = random.nextInt(descriptions.size());
+                infos.delete(index);
+                descriptions.remove(index);
+                ids.remove(index);
+            }
+            if (round % 500 == 0) {
+                assertSameItems(descriptions, infos);
+            }
+        }
+        assertSameItems(descriptions, infos);
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals((int) ids.get(i), infos.getId(i));
+        }
+    }
+
+    @Test
+    public void deleteAll_moreThanHalfDeleted_tombstonesKeptForUndo() throws OscarException {
+        ItemList infos = new ItemList();
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            infos.add(new TodoTask("task " + i));
+            descriptions.add("task " + i);
+        }
+        int lastId = infos.getId(99);
+        BitSet indexes = new BitSet();
+        indexes.set(10, 70);
+        infos.deleteAll(indexes);
+        assertEquals(100, infos.getSlotCount());
+        assertEquals(40, infos.getSize());
+        assertEquals("task 70", infos.get(10).getDescription());
+        assertEquals(lastId, infos.getId(39));
+
+        infos.undo();
+        assertSameItems(descriptions, infos);
+        assertEquals(lastId, infos.getId(99));
+    }
+
+    @Test
+    public void delete_historyForgetsOlderDeletions_onlyThoseDroppedByCompaction() throws OscarException {
+        int size = ItemList.UNDO_DEPTH * 3;
+        ItemList infos = new ItemList();
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            infos.add(new TodoTask("task " + i));
+            descriptions.add("task " + i);
+        }
+        int deletions = size / 2 + 1; // the last deletion makes tombstones the majority
+        for (int i = 0; i < deletions; i++) {
+            infos.delete(0);
+        }
+        assertEquals(size - deletions + ItemList.UNDO_DEPTH, infos.getSlotCount());
+        assertSameItems(descriptions.subList(deletions, size), infos);
+
+        for (int i = 0; i < ItemList.UNDO_DEPTH; i++) {
+            infos.undo();
+        }
+        assertSameItems(descriptions.subList(deletions - ItemList.UNDO_DEPTH, size), infos);
+        try {
+            infos.undo();
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! There are no changes to undo.\n", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package oscar.essential;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import oscar.exception.OscarException;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+public class KeywordIndexTest {
+    private static List<Integer> toList(KeywordIndex.Postings postings) {
+        List<Integer> ordinals = new ArrayList<>();
+        for (int i = 0; i < postings.size(); i++) {
+            ordinals.add(postings.get(i));
+        }
+        return ordinals;
+    }
+
+    @Test
+    public void candidates_keywordInSomeDescriptions_ascendingOrdinalsReturned() {
+        KeywordIndex index = new KeywordIndex();
+        index.add(0, "read book");
+        index.add(1, "buy milk");
+        index.add(2, "book book book");
+        index.add(3, "bookshelf");
+        assertEquals(List.of(0, 2, 3), toList(index.candidates("book")));
+        assertEquals(List.of(3), toList(index.candidates("books")));
+        assertEquals(List.of(), toList(index.candidates("booked")));
+        assertEquals(List.of(), toList(index.candidates("xyz")));
+    }
+
+    @Test
+    public void find_keywordShorterThanTrigram_sameAsScan() {
+        ItemList infos = new ItemList();
+        for (int i = 0; i < 100; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+        }
+        infos.add(new Note("k"));
+        infos.find("chapter 5"); // builds the keyword index
+        for (String keyword : new String[]{"k", "7", "r 9", "99"}) {
+            assertEquals(infos.findByScan(keyword), infos.find(keyword));
+        }
+        assertEquals("Here are the matching infos in your list:\n101. [N] k\n\n", infos.find("k"));
+    }
+
+    @Test
+    public void find_afterDeleteAndMark_indexedResultsUpdated() throws OscarException {
+        ItemList infos = new ItemList();
+        for (int i = 0; i < 40; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+        }
+        infos.add(new TodoTask("buy milk"));
+        infos.add(new TodoTask("buy more milk"));
+        infos.add(new Note("milk tea"));
+        assertEquals("Here are the matching infos in your list:\n41. [T][ ] buy milk\n"
+                + "42. [T][ ] buy more milk\n43. [N] milk tea\n\n", infos.find("milk"));
+
+        infos.delete(40);
+        infos.mark(40);
+        infos.add(new TodoTask("oat milk"));
+        String expected = "Here are the matching infos in your list:\n41. [T][X] buy more milk\n"
+                + "42. [N] milk tea\n43. [T][ ] oat milk\n\n";
+        assertEquals(expected, infos.find("milk"));
+        assertEquals(expected, infos.findByScan("milk"));
+    }
+
+    @Test
+    public void find_randomChanges_sameAsScan() throws OscarException {
+        Random random = new Random(42);
+        String[] words = {"read", "book", "buy", "milk", "cca", "chapter", "report", "meet", "bread", "boo"};
+        ItemList infos = new ItemList();
+        for (int round = 0; round < 2000; round++) {
+            int choice = random.nextInt(10);
+            if (choice < 6 || infos.getSize() == 0) {
+                infos.add(new TodoTask(words[random.nextInt(words.length)] + " "
+                        + words[random.nextInt(words.length)] + " " + random.nextInt(100)));
+            } else if (choice < 8) {
+                infos.delete(random.nextInt(infos.getSize()));
+            } else if (choice == 8) {
+                infos.undo();
+            } else {
+                String keyword = words[random.nextInt(words.length)] + (random.nextBoolean() ? " " : "");
+                assertEquals(infos.findByScan(keyword), infos.find(keyword), keyword);
+            }
+        }
+    }
+}
@@ -4,14 +4,22 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import oscar.command.Command;
 import oscar.command.ExitCommand;
 import oscar.command.ListCommand;
+import oscar.command.MarkCommand;
 import oscar.exception.OscarException;
+import oscar.item.TodoTask;
 
 public class ParserTest {
+    @TempDir
+    Path tempDir;
+
     @Test
     public void parse_exitCommand_success() throws OscarException {
         Command command = Parser.parse("bye");
@@ -24,6 +32,27 @@ public class ParserTest {
         assertTrue(command instanceof ListCommand);
     }
 
+    @Test
+    public void parse_mixedCaseWithDetails_detailsKept() throws OscarException {
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        infos.add(new TodoTask("return book"));
+        Command command = Parser.parse("MARK 2");
+        assertTrue(command instanceof MarkCommand);
+        assertEquals("Nice! Oscar has marked this task as done:\n[T][X] return book\n",
+                command.execute(infos, new Storage(tempDir.resolve("infolist").toString())));
+    }
+
+    @Test
+    public void parse_commandWordPrefix_exceptionThrown() {
+        try {
+            Parser.parse("marks 1");
+            fail();
+        } catch (OscarException e) {
+            assertEquals("Sorry! Oscar does not recognise this command\n", e.getMessage());
+        }
+    }
+
     @Test
     public void parse_unknownCommand_exceptionThrown() {
         try {
@@ -0,0 +1,335 @@
+package oscar.essential;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.exception.OscarException;
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+import oscar.item.Note;
+import oscar.item.TodoTask;
+
+public class StorageTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void load_corruptedSnapshot_previousGenerationRecovered() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        storage.recordAdd(infos, infos.get(0));
+        storage.save(infos);
+        infos.add(new TodoTask("return book"));
+        storage.recordAdd(infos, infos.get(1));
+        infos.mark(0);
+        storage.recordMark(infos, 0);
+        storage.save(infos);
+        String expected = infos.list();
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.seek(file.length() - 6);
+            file.write('x');
+        }
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_truncatedSnapshotWithoutOlderGeneration_rebuiltFromJournal()
+            throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("join cca"));
+        storage.recordAdd(infos, infos.get(0));
+        storage.save(infos);
+        String expected = infos.list();
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void save_oneTaskMarked_onlyItsSegmentRewritten() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        for (int i = 0; i < Segments.SEGMENT_SIZE * 3; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+        }
+        storage.save(infos);
+        List<Path> before = listSegmentFiles();
+        assertEquals(3, before.size());
+
+        infos.mark(Segments.SEGMENT_SIZE + 1);
+        storage.recordMark(infos, Segments.SEGMENT_SIZE + 1);
+        storage.save(infos);
+        List<Path> after = listSegmentFiles();
+        after.removeAll(before);
+        assertEquals(1, after.size());
+        assertEquals(infos.list(), new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_corruptedSegment_previousGenerationRecovered() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        storage.recordAdd(infos, infos.get(0));
+        storage.save(infos);
+        List<Path> before = listSegmentFiles();
+        infos.mark(0);
+        storage.recordMark(infos, 0);
+        storage.save(infos);
+        String expected = infos.list();
+
+        List<Path> after = listSegmentFiles();
+        after.removeAll(before);
+        assertEquals(1, after.size());
+        try (RandomAccessFile file = new RandomAccessFile(after.get(0).toFile(), "rw")) {
+            file.seek(file.length() - 6);
+            file.write('x');
+        }
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void save_mostItemsDeleted_remainingItemsKept() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        ItemList infos = new ItemList();
+        for (int i = 0; i < 3000; i++) {
+            infos.add(i % 2 == 0
+                    ? new DeadlineTask("submit report " + i, LocalDateTime.of(2023, 9, 11, 23, 59).plusDays(i))
+                    : new Note("buy milk"));
+        }
+        infos.mark(0);
+        BitSet indexes = new BitSet();
+        indexes.set(1, 2500);
+        infos.deleteAll(indexes);
+        String expected = infos.list();
+
+        new Storage(path).save(infos);
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_snapshotWithHistory_deletionUndoneAfterRestart() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        for (int i = 0; i < 5; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+            storage.recordAdd(infos, infos.get(i));
+        }
+        String expected = infos.list();
+        BitSet indexes = new BitSet();
+        indexes.set(1, 4);
+        infos.deleteAll(indexes);
+        storage.recordDeleteAll(infos, indexes);
+        storage.save(infos);
+
+        ItemList loaded = new Storage(path).load();
+        assertEquals(infos.list(), loaded.list());
+        loaded.undo();
+        assertEquals(expected, loaded.list());
+        loaded.redo();
+        assertEquals(infos.list(), loaded.list());
+    }
+
+    @Test
+    public void load_journalCutMidRecord_tornRecordDroppedAndJournalReusable() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        storage.recordAdd(infos, infos.get(0));
+        infos.add(new TodoTask("return book"));
+        storage.recordAdd(infos, infos.get(1));
+        String expected = infos.list();
+        infos.mark(1);
+        storage.recordMark(infos, 1);
+        storage.flush();
+
+        try (RandomAccessFile file = new RandomAccessFile(path + ".log", "rw")) {
+            file.setLength(file.length() - 1); // the mark record loses its item number
+        }
+        Storage reloaded = new Storage(path);
+        ItemList loaded = reloaded.load();
+        assertEquals(expected, loaded.list());
+        loaded.add(new Note("book list"));
+        reloaded.recordAdd(loaded, loaded.get(2));
+        reloaded.flush();
+        assertEquals(loaded.list(), new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_journalEndingInsideBatch_wholeBatchDropped() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("zero"));
+        storage.recordAdd(infos, infos.get(0));
+        String expected = infos.list();
+        infos.begin();
+        storage.beginBatch();
+        infos.add(new TodoTask("one"));
+        storage.recordAdd(infos, infos.get(1));
+        infos.mark(0);
+        storage.recordMark(infos, 0);
+        infos.commit();
+        storage.commitBatch(infos);
+        storage.flush();
+
+        try (RandomAccessFile file = new RandomAccessFile(path + ".log", "rw")) {
+            file.setLength(file.length() - 2); // the record ending the batch is lost
+        }
+        ItemList loaded = new Storage(path).load();
+        assertEquals(expected, loaded.list());
+        assertEquals("added 1 info", loaded.undo());
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_serializedSaveFile_migratedToBinaryFormat() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        ArrayList<Item> items = new ArrayList<>();
+        TodoTask task = new TodoTask("read book");
+        task.markAsDone();
+        items.add(task);
+        items.add(new DeadlineTask("return book", LocalDateTime.of(2023, 9, 17, 23, 59)));
+        items.add(new EventTask("project meeting", LocalDateTime.of(2023, 9, 18, 14, 0),
+                LocalDateTime.of(2023, 9, 18, 16, 0)));
+        items.add(new Note("book list"));
+        try (ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream(path))) {
+            stream.writeObject(items); // format written by earlier versions of Oscar
+        }
+
+        String expected = "Here are the items in your list:\n1. [T][X] read book\n"
+                + "2. [D][ ] return book (by: Sep 17 2023 11:59PM)\n"
+                + "3. [E][ ] project meeting (from: Sep 18 2023 2:00PM to: Sep 18 2023 4:00PM)\n"
+                + "4. [N] book list\n\n";
+        assertEquals(expected, new Storage(path).load().list());
+        assertTrue(ItemCodec.hasHeader(ByteBuffer.wrap(Files.readAllBytes(Path.of(path)))));
+        assertEquals(expected, new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_everySnapshotDamagedAndJournalsComplete_rebuiltFromJournals() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        storage.recordAdd(infos, infos.get(0));
+        storage.save(infos);
+        infos.add(new TodoTask("return book"));
+        storage.recordAdd(infos, infos.get(1));
+        infos.mark(0);
+        storage.recordMark(infos, 0);
+        storage.flush();
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertEquals(infos.list(), new Storage(path).load().list());
+    }
+
+    @Test
+    public void load_everySnapshotDamagedAndJournalsIncomplete_loadFailsAndFilesKept()
+            throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        infos.add(new TodoTask("return book"));
+        Storage storage = new Storage(path);
+        storage.save(infos); // items that were never journalled
+        infos.add(new TodoTask("join cca"));
+        storage.recordAdd(infos, infos.get(2));
+        storage.flush();
+
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        byte[] journal = Files.readAllBytes(Path.of(path + ".log"));
+        assertThrows(OscarException.class, () -> new Storage(path).load());
+        assertArrayEquals(journal, Files.readAllBytes(Path.of(path + ".log")));
+    }
+
+    @Test
+    public void load_journalRecordNotMatchingSnapshot_loadFailsAndJournalKept() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        infos.add(new TodoTask("read book"));
+        storage.recordAdd(infos, infos.get(0));
+        storage.save(infos);
+        storage.recordMark(infos, 5); // refers to an item the snapshot does not have
+        infos.add(new TodoTask("return book"));
+        storage.recordAdd(infos, infos.get(1));
+        storage.flush();
+
+        byte[] journal = Files.readAllBytes(Path.of(path + ".log"));
+        assertThrows(OscarException.class, () -> new Storage(path).load());
+        assertArrayEquals(journal, Files.readAllBytes(Path.of(path + ".log")));
+    }
+
+    @Test
+    public void load_anySegmentFileCorrupted_listRecoveredInFull() throws OscarException, IOException {
+        String path = tempDir.resolve("infolist").toString();
+        Storage storage = new Storage(path);
+        ItemList infos = new ItemList();
+        for (int i = 0; i < Segments.SEGMENT_SIZE * 3; i++) {
+            infos.add(new TodoTask("read chapter " + i));
+        }
+        storage.save(infos);
+        for (int i = 0; i < 6; i++) { // only the last segment changes, so the first two would be shared by all
+            if (i == 5) { // restarted, so the next snapshot has to count which files the older ones list
+                storage = new Storage(path);
+                infos = storage.load();
+            }
+            infos.mark(infos.getSize() - 1 - i);
+            storage.recordMark(infos, infos.getSize() - 1 - i);
+            storage.save(infos);
+        }
+        String expected = infos.list();
+
+        for (Path segment : listSegmentFiles()) {
+            byte[] bytes = Files.readAllBytes(segment);
+            byte[] corrupted = bytes.clone();
+            corrupted[bytes.length / 2] ^= 1;
+            Files.write(segment, corrupted);
+            assertEquals(expected, new Storage(path).load().list(), segment.toString());
+            Files.write(segment, bytes);
+        }
+    }
+
+    private List<Path> listSegmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("infolist.s"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
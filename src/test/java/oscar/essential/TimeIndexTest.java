@@ -0,0 +1,85 @@
+package oscar.essential;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import oscar.item.DeadlineTask;
+import oscar.item.EventTask;
+import oscar.item.Item;
+import oscar.item.TodoTask;
+
+public class TimeIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2023, 9, 1, 0, 0);
+
+    @Test
+    public void overlapping_longEventNextToManyShortEvents_onlyNearbyEventsVisited() {
+        TimeIndex index = new TimeIndex();
+        index.add(0, new EventTask("exchange semester", START, START.plusDays(365)));
+        for (int i = 1; i <= 10_000; i++) {
+            index.add(i, new EventTask("lesson " + i, START.plusHours(i), START.plusHours(i).plusMinutes(50)));
+        }
+        LocalDateTime from = START.plusHours(5000).plusMinutes(55);
+        int[] ids = index.overlapping(from, from.plusMinutes(10));
+        assertArrayEquals(new int[]{0, 5001}, ids);
+        int visited = index.countVisited(from, from.plusMinutes(10));
+        assertTrue(visited <= 4, "visited " + visited);
+    }
+
+    @Test
+    public void overlapping_randomItems_sameAsCheckingEveryItem() {
+        Random random = new Random(5);
+        List<Item> items = new ArrayList<>();
+        TimeIndex index = new TimeIndex();
+        for (int id = 0; id < 3000; id++) {
+            LocalDateTime time = START.plusMinutes(random.nextInt(100_000));
+            int kind = random.nextInt(3);
+            Item item = kind == 0 ? new TodoTask("task " + id)
+                    : kind == 1 ? new DeadlineTask("deadline " + id, time)
+                    : new EventTask("event " + id, time, time.plusMinutes(random.nextInt(random.nextInt(4) == 0
+                            ? 50_000 : 100)));
+            items.add(item);
+            index.add(id, item);
+        }
+        for (int query = 0; query < 200; query++) {
+            LocalDateTime from = START.plusMinutes(random.nextInt(100_000));
+            LocalDateTime to = from.plusMinutes(random.nextInt(500));
+            assertArrayEquals(findByScan(items, from, to), index.overlapping(from, to));
+        }
+    }
+
+    /**
+     * Finds deadlines and events overlapping a range by checking every item, ordered by deadline or start and
+     * then by ID.
+     */
+    private static int[] findByScan(List<Item> items, LocalDateTime from, LocalDateTime to) {
+        List<int[]> hits = new ArrayList<>();
+        List<LocalDateTime> times = new ArrayList<>();
+        for (int id = 0; id < items.size(); id++) {
+            Item item = items.get(id);
+            LocalDateTime time = null;
+            if (item instanceof DeadlineTask) {
+                LocalDateTime deadline = ((DeadlineTask) item).getDeadline();
+                time = deadline.isBefore(from) || deadline.isAfter(to) ? null : deadline;
+            } else if (item instanceof EventTask) {
+                EventTask event = (EventTask) item;
+                time = event.getStart().isAfter(to) || event.getEnd().isBefore(from) ? null : event.getStart();
+            }
+            if (time != null) {
+                int position = 0;
+                while (position < times.size() && !times.get(position).isAfter(time)) {
+                    position++;
+                }
+                times.add(position, time);
+                hits.add(position, new int[]{id});
+            }
+        }
+        return hits.stream().mapToInt(hit -> hit[0]).toArray();
+    }
+}
@@ -0,0 +1,57 @@
+package oscar.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import oscar.Oscar;
+
+public class OscarServerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void run_pipelinedCommands_answeredInOrder() throws IOException {
+        Oscar oscar = new Oscar(tempDir.resolve("infolist").toString());
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (OscarServer server = new OscarServer(oscar, address, 4)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    server.run();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                OutputStream out = socket.getOutputStream();
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                out.write("todo read \"book\"\r\nmark 1\nhello\n\nfind book\nbye\n".getBytes(StandardCharsets.UTF_8));
+                assertEquals("{\"id\":1,\"ok\":true,\"response\":\"Oscar has added:\\n"
+                        + "[T][ ] read \\\"book\\\"\\n\"}", in.readLine());
+                assertEquals("{\"id\":2,\"ok\":true,\"response\":\"Nice! Oscar has marked this task as done:\\n"
+                        + "[T][X] read \\\"book\\\"\\n\"}", in.readLine());
+                assertEquals("{\"id\":3,\"ok\":false,\"response\":\"Sorry! Oscar does not recognise this command\\n\"}",
+                        in.readLine());
+                assertEquals("{\"id\":4,\"ok\":true,\"response\":\"Here are the matching infos in your list:\\n"
+                        + "1. [T][X] read \\\"book\\\"\\n\\n\"}", in.readLine());
+                assertEquals("{\"id\":5,\"ok\":true,\"response\":\"Goodbye for now. Oscar hopes to see you again "
+                        + "soon!\\n\"}", in.readLine());
+                assertNull(in.readLine());
+            }
+        }
+    }
+}
@@ -6,21 +6,22 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and saved infos from previous run
 if [ -e "./ACTUAL.TXT" ]
 then
     rm ACTUAL.TXT
 fi
+rm -rf ./data
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/*.java
+# compile the console and the classes it uses into the bin folder, without JavaFX, terminates if error occurred
+if ! javac -sourcepath ../src/main/java -Xlint:none -d ../bin ../src/main/java/oscar/console/OscarConsole.java
 then
     echo "********** BUILD FAILURE **********"
     exit 1
 fi
 
 # run the program, feed commands from input.txt file and redirect the output to the ACTUAL.TXT
-java -classpath ../bin Oscar < input.txt > ACTUAL.TXT
+java -classpath ../bin oscar.console.OscarConsole < input.txt > ACTUAL.TXT
 
 # convert to UNIX format
 cp EXPECTED.TXT EXPECTED-UNIX.TXT